@@ -0,0 +1,61 @@
+package org.acme.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FormDataTransformer.transformFormData on synthetic households, shaped like Form-JS submissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormDataTransformerBenchmark {
+
+    @Param({"1", "5", "20", "50"})
+    public int people;
+
+    private Map<String, Object> formData;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> peopleObject = new HashMap<>();
+        for (int i = 0; i < people; i++) {
+            Map<String, Object> person = new HashMap<>();
+            person.put("dateOfBirth", (1940 + i) + "-01-01");
+            person.put("income", Map.of("wages", 20000 + i * 1000, "pension", 0));
+            person.put("enrollments", List.of("SNAP", "Medicaid"));
+            peopleObject.put(i == 0 ? "applicant" : "person" + i, person);
+        }
+
+        Map<String, Object> custom = new HashMap<>();
+        custom.put("homeowner", true);
+        custom.put("occupant", true);
+
+        formData = new HashMap<>();
+        formData.put("people", peopleObject);
+        formData.put("simpleChecks", Map.of("livesInPhiladelphiaPa", true, "taxDelinquent", false));
+        formData.put("custom", custom);
+    }
+
+    @Benchmark
+    public Map<String, Object> transformFormData() {
+        return FormDataTransformer.transformFormData(formData);
+    }
+}
@@ -0,0 +1,62 @@
+package org.acme.service;
+
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.FormPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputSchemaService.extractUniqueInputPaths over screeners built by repeating the example screener's benefits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputSchemaServiceBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int benefitCount;
+
+    private InputSchemaService inputSchemaService;
+    private List<Benefit> benefits;
+
+    @Setup
+    public void setup() {
+        inputSchemaService = new InputSchemaService();
+
+        List<Benefit> seedBenefits = new ArrayList<>();
+        for (String file : SeedData.BENEFIT_FILES) {
+            seedBenefits.add(SeedData.benefit(file));
+        }
+
+        benefits = new ArrayList<>();
+        for (int i = 0; i < benefitCount; i++) {
+            Benefit seed = seedBenefits.get(i % seedBenefits.size());
+            Benefit benefit = new Benefit();
+            benefit.setId(seed.getId() + "-" + i);
+            benefit.setName(seed.getName());
+            benefit.setChecks(seed.getChecks());
+            benefits.add(benefit);
+        }
+    }
+
+    @Benchmark
+    public List<FormPath> extractUniqueInputPaths() {
+        return inputSchemaService.extractUniqueInputPaths(benefits);
+    }
+}
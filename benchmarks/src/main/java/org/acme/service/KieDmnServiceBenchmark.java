@@ -0,0 +1,109 @@
+package org.acme.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.enums.EvaluationResult;
+import org.acme.persistence.InMemoryStorageService;
+import org.acme.persistence.StorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custom check DMN compilation and evaluation, with the DMN served from memory.
+ *
+ * compile measures KieDmnService.compileToKieModule alone, evaluateCold loads the stored KieModule on every
+ * call (model cache disabled) and evaluateWarm evaluates an already loaded model, which is the
+ * steady-state path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KieDmnServiceBenchmark {
+
+    private static final String DMN_PATH = "check/benchmark.dmn";
+
+    @Param({"testchecks-test", "general-propertyTaxReliefInputs"})
+    public String check;
+
+    private String dmnXml;
+    private String decisionName;
+    private Map<String, Object> inputs;
+    private Map<String, Object> parameters;
+
+    private KieDmnService coldService;
+    private KieDmnService warmService;
+
+    @Setup
+    public void setup() throws Exception {
+        SeedData.quietLogging();
+
+        inputs = new HashMap<>();
+        switch (check) {
+            case "testchecks-test" -> {
+                decisionName = "test";
+                inputs.put("testinput", "value");
+            }
+            case "general-propertyTaxReliefInputs" -> {
+                decisionName = "propertyTaxReliefInputs";
+                inputs.put("anyEnrollments", true);
+                inputs.put("equitableInterest", true);
+                inputs.put("occupant", true);
+                inputs.put("homeowner", true);
+            }
+            default -> throw new IllegalArgumentException("Unknown check: " + check);
+        }
+        dmnXml = SeedData.checkDmn("W-uwx3W7vaM6GUk9RaBsf5WIyRErjr-" + check + ".dmn");
+        parameters = new HashMap<>();
+
+        StorageService storage = new InMemoryStorageService();
+        storage.writeStringToStorage(DMN_PATH, dmnXml, "application/xml");
+
+        // A zero-size cache evicts every compiled model immediately
+        coldService = newService(storage, new DmnModelCache(0));
+        warmService = newService(storage, new DmnModelCache(16));
+        // As on save/publish, so evaluation finds a current compiled KieModule next to the DMN
+        warmService.saveCompiledModel(DMN_PATH, dmnXml, decisionName);
+        warmService.evaluateDmn(DMN_PATH, decisionName, inputs, parameters);
+    }
+
+    private static KieDmnService newService(StorageService storage, DmnModelCache cache) {
+        KieDmnService service = new KieDmnService();
+        service.storageService = storage;
+        KieContainerRegistry containerRegistry = new KieContainerRegistry();
+        cache.containerRegistry = containerRegistry;
+        service.modelCache = cache;
+        service.containerRegistry = containerRegistry;
+        service.metrics = new EvaluationMetrics(new SimpleMeterRegistry());
+        return service;
+    }
+
+    @Benchmark
+    public byte[] compile() {
+        return coldService.compileToKieModule(DMN_PATH, dmnXml, decisionName);
+    }
+
+    @Benchmark
+    public EvaluationResult evaluateCold() throws Exception {
+        return coldService.evaluateDmn(DMN_PATH, decisionName, inputs, parameters);
+    }
+
+    @Benchmark
+    public EvaluationResult evaluateWarm() throws Exception {
+        return warmService.evaluateDmn(DMN_PATH, decisionName, inputs, parameters);
+    }
+}
@@ -0,0 +1,59 @@
+package org.acme.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.model.domain.Benefit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the example screener bundled with builder-api (seed-data/example-screener) for use as benchmark input.
+ */
+final class SeedData {
+
+    private static final String ROOT = "seed-data/example-screener/";
+
+    static final String[] BENEFIT_FILES = {
+        "firestore/workingScreener/Am3FMS6ID2keNa82MbPh/customBenefit/b481f008-5ed6-4d5f-a0d1-a08733ab91f9.json",
+        "firestore/workingScreener/Am3FMS6ID2keNa82MbPh/customBenefit/ea6688ae-0a00-4e3e-a0d6-73d8e8be7cba.json",
+    };
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private SeedData() {
+    }
+
+    static String checkDmn(String fileName) {
+        try (InputStream in = open("storage/check/" + fileName)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Benefit benefit(String file) {
+        try (InputStream in = open(file)) {
+            return mapper.readValue(in, Benefit.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The services log at INFO on every call; keep that out of the measurements
+    static void quietLogging() {
+        Logger.getLogger("").setLevel(Level.WARNING);
+    }
+
+    private static InputStream open(String path) {
+        InputStream in = SeedData.class.getClassLoader().getResourceAsStream(ROOT + path);
+        if (in == null) {
+            throw new IllegalStateException("Seed data not found on classpath: " + ROOT + path);
+        }
+        return in;
+    }
+}
@@ -1,5 +1,6 @@
 package org.acme.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.logging.Log;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.inject.Inject;
@@ -11,20 +12,22 @@ import jakarta.ws.rs.core.Response;
 import org.acme.auth.AuthUtils;
 import org.acme.enums.EvaluationResult;
 import org.acme.model.domain.Benefit;
-import org.acme.model.domain.CheckConfig;
 import org.acme.model.domain.EligibilityCheck;
+import org.acme.model.domain.EvaluationPlan;
 import org.acme.model.domain.Screener;
 import org.acme.model.dto.EligibilityCheck.EvaluateCheckRequest;
 import org.acme.persistence.EligibilityCheckRepository;
-import org.acme.persistence.PublishedScreenerRepository;
+import org.acme.persistence.PublishedScreenerCache;
 import org.acme.persistence.ScreenerRepository;
 import org.acme.persistence.StorageService;
 import org.acme.service.DmnService;
+import org.acme.service.EvaluationMetrics;
+import org.acme.service.EvaluationPlanService;
 import org.acme.service.FormDataTransformer;
-import org.acme.service.LibraryApiService;
-import org.acme.service.LibraryApiService.LibraryCheckEvaluation;
+import org.acme.service.ScreenerEvaluationService;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Path("/api")
 public class DecisionResource {
@@ -36,7 +39,7 @@ public class DecisionResource {
     ScreenerRepository screenerRepository;
 
     @Inject
-    PublishedScreenerRepository publishedScreenerRepository;
+    PublishedScreenerCache publishedScreenerCache;
 
     @Inject
     StorageService storageService;
@@ -45,7 +48,16 @@ public class DecisionResource {
     DmnService dmnService;
 
     @Inject
-    LibraryApiService libraryApi;
+    ScreenerEvaluationService screenerEvaluationService;
+
+    @Inject
+    EvaluationPlanService evaluationPlanService;
+
+    @Inject
+    EvaluationMetrics metrics;
+
+    @Inject
+    ObjectMapper objectMapper;
 
     @POST
     @Path("/published/{screenerId}/evaluate")
@@ -55,30 +67,29 @@ public class DecisionResource {
         @PathParam("screenerId") String screenerId,
         Map<String, Object> inputData
     ) throws Exception {
-        Optional<Screener> screenerOpt = publishedScreenerRepository.getScreener(screenerId);
-        if (screenerOpt.isEmpty()){
+        // Evaluation only needs the screener metadata and benefits, not the form schema
+        Optional<PublishedScreenerCache.PublishedScreener> publishedOpt = publishedScreenerCache.get(screenerId);
+        if (publishedOpt.isEmpty()){
             Log.info("Screener not found: " + screenerId);
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        Screener screener = screenerOpt.get();
 
-        List<Benefit> benefits = publishedScreenerRepository.getBenefitsInScreener(screener);
+        List<Benefit> benefits = publishedOpt.get().benefits();
         if (benefits.isEmpty()){
             Log.info("Benefits not found: " + screenerId);
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        EvaluationPlan plan = evaluationPlanService.getPublishedPlan(publishedOpt.get().screener(), benefits);
 
         // Transform form data: convert people object to people array
         Map<String, Object> transformedData = FormDataTransformer.transformFormData(inputData);
 
         try {
-            Map<String, Object> screenerResults = new HashMap<String, Object>();
-            for (Benefit benefit : benefits) {
-                // Evaluate benefit
-                Map<String, Object> benefitResults = evaluateBenefit(benefit, transformedData);
-                screenerResults.put(benefit.getId(), benefitResults);
-            }
-            return Response.ok().entity(screenerResults).build();
+            // Benefits and their checks are evaluated concurrently; repeated submissions may be served from the result cache
+            Map<String, Object> screenerResults = metrics.timeEvaluation(
+                screenerId, () -> screenerEvaluationService.evaluatePublishedPlan(plan, transformedData)
+            );
+            return Response.ok().entity(serializeResults(screenerResults)).build();
         } catch (Exception e) {
             Log.error("Error: " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
@@ -94,19 +105,30 @@ public class DecisionResource {
         @QueryParam("screenerId") String screenerId,
         Map<String, Object> formData
     ) throws Exception {
-        // Authorize user and get benefit
         String userId = AuthUtils.getUserId(identity);
-        if (screenerId.isEmpty() || !isUserAuthorizedToAccessScreenerByScreenerId(userId, screenerId)){
+        if (screenerId.isEmpty()){
             return Response.status(Response.Status.UNAUTHORIZED).build();
         }
 
-        Optional<Screener> screenerOpt = screenerRepository.getWorkingScreener(screenerId);
-        if (screenerOpt.isEmpty()){
-            return Response.status(Response.Status.NOT_FOUND).build();
+        // The screener metadata (for authorization) and its benefits are independent reads, so both are
+        // started together. The benefits are only waited on once the user is authorized, so an unauthorized
+        // caller gets a 401 whatever happens to that read.
+        CompletableFuture<Optional<Screener>> screenerFuture =
+            screenerRepository.getWorkingScreenerMetaDataOnlyAsync(screenerId).toCompletableFuture();
+        CompletableFuture<List<Benefit>> benefitsFuture =
+            screenerRepository.getBenefitsInScreenerAsync(screenerId).toCompletableFuture();
+        Optional<List<Benefit>> authorizedBenefits = metrics.timeStage(EvaluationMetrics.STAGE_FIRESTORE_LOAD, () -> {
+            Optional<Screener> screenerOpt = screenerFuture.join();
+            if (screenerOpt.isEmpty() || !isUserAuthorizedToAccessScreenerByScreener(userId, screenerOpt.get())){
+                return Optional.<List<Benefit>>empty();
+            }
+            return Optional.of(benefitsFuture.join());
+        });
+        if (authorizedBenefits.isEmpty()){
+            return Response.status(Response.Status.UNAUTHORIZED).build();
         }
-        Screener screener = screenerOpt.get();
 
-        List<Benefit> benefits = screenerRepository.getBenefitsInScreener(screener);
+        List<Benefit> benefits = authorizedBenefits.get();
         if (benefits.isEmpty()){
             return Response.status(Response.Status.NOT_FOUND).build();
         }
@@ -115,86 +137,17 @@ public class DecisionResource {
         Map<String, Object> transformedData = FormDataTransformer.transformFormData(formData);
 
         try {
-            Map<String, Object> screenerResults = new HashMap<String, Object>();
-            //TODO: consider ways of processing benefits in parallel
-            for (Benefit benefit : benefits) {
-                // Evaluate benefit
-                Map<String, Object> benefitResults = evaluateBenefit(benefit, transformedData);
-                screenerResults.put(benefit.getId(), benefitResults);
-            }
-            return Response.ok().entity(screenerResults).build();
+            // Benefits and their checks are evaluated concurrently
+            Map<String, Object> screenerResults = metrics.timeEvaluation(
+                null, () -> screenerEvaluationService.evaluateBenefits(benefits, transformedData)
+            );
+            return Response.ok().entity(serializeResults(screenerResults)).build();
         } catch (Exception e) {
             Log.error("Error: " + e.getMessage());
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
     }
 
-    private Map<String, Object> evaluateBenefit(Benefit benefit, Map<String, Object> formData) throws Exception {
-        // Evaluate the benefit using its configured checks
-        List<EvaluationResult> resultsList = new ArrayList<>();
-        Map<String, Object> checkResults = new HashMap<>();
-
-            int checkNum = 0;
-            for (CheckConfig checkConfig : benefit.getChecks()) {
-                EvaluationResult evaluationResult;
-                Map<String, Object> effectiveParameters = checkConfig.getParameters() != null
-                    ? new HashMap<>(checkConfig.getParameters())
-                    : new HashMap<>();
-                List<String> defaultedParameters = List.of();
-                if (isLibraryCheck(checkConfig)){
-                    LibraryCheckEvaluation libraryCheckEvaluation = libraryApi.evaluateCheck(checkConfig, formData);
-                    evaluationResult = libraryCheckEvaluation.result();
-                    effectiveParameters = libraryCheckEvaluation.effectiveParameters();
-                    defaultedParameters = libraryCheckEvaluation.defaultedParameters();
-                } else {
-                    Map<String, Object> customFormValues = (Map<String, Object>) formData.get("custom");
-                    if (customFormValues == null) {
-                        customFormValues = new HashMap<String, Object>();
-                    }
-                    String sourceCheckId = checkConfig.getSourceCheckId() != null ? checkConfig.getSourceCheckId() : checkConfig.getCheckId();
-                    String dmnFilepath = storageService.getCheckDmnModelPath(sourceCheckId);
-                    evaluationResult = dmnService.evaluateDmn(
-                        dmnFilepath, checkConfig.getCheckName(), customFormValues, checkConfig.getParameters()
-                    );
-                }
-                resultsList.add(evaluationResult);
-
-                String uniqueCheckKey = checkConfig.getCheckId() + checkNum;
-                Map<String, Object> checkResultMap = new HashMap<>();
-                checkResultMap.put("name", checkConfig.getCheckName());
-                checkResultMap.put("aliasName", checkConfig.getAliasName());
-                checkResultMap.put("result", evaluationResult);
-                checkResultMap.put("module", checkConfig.getCheckModule() != null ? checkConfig.getCheckModule() : "");
-                checkResultMap.put("version", checkConfig.getCheckVersion() != null ? checkConfig.getCheckVersion() : "");
-                checkResultMap.put("parameters", checkConfig.getParameters() != null ? checkConfig.getParameters() : Map.of());
-                checkResultMap.put("effectiveParameters", effectiveParameters);
-                checkResultMap.put("defaultedParameters", defaultedParameters);
-                checkResults.put(uniqueCheckKey, checkResultMap);
-                checkNum += 1;
-            }
-
-            // Determine overall Benefit result
-            Boolean allChecksTrue = resultsList.stream().allMatch(evaluationResult -> evaluationResult == EvaluationResult.TRUE);
-            Boolean anyChecksFalse = resultsList.stream().anyMatch(evaluationResult -> evaluationResult == EvaluationResult.FALSE);
-
-            EvaluationResult benefitEvaluationResult;
-            if (allChecksTrue) {
-                benefitEvaluationResult = EvaluationResult.TRUE;
-            } else if (anyChecksFalse) {
-                benefitEvaluationResult = EvaluationResult.FALSE;
-            } else {
-                benefitEvaluationResult = EvaluationResult.UNABLE_TO_DETERMINE;
-            }
-
-            return new HashMap<String, Object>(
-                Map.of(
-                    "name", benefit.getName(),
-                    "result", benefitEvaluationResult,
-                    "check_results", checkResults
-                )
-            );
-    }
-
     @POST
     @Path("/decision/working-check")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -234,13 +187,11 @@ public class DecisionResource {
         }
     }
 
-    private boolean isUserAuthorizedToAccessScreenerByScreenerId(String userId, String screenerId) {
-        Optional<Screener> screenerOpt = screenerRepository.getWorkingScreenerMetaDataOnly(screenerId);
-        if (screenerOpt.isEmpty()){
-            return false;
-        }
-        Screener screener = screenerOpt.get();
-        return isUserAuthorizedToAccessScreenerByScreener(userId, screener);
+    // Serialized here rather than by the JAX-RS writer so serialization time shows up as its own stage
+    private String serializeResults(Map<String, Object> screenerResults) throws Exception {
+        return metrics.timeStage(
+            EvaluationMetrics.STAGE_RESPONSE_SERIALIZE, () -> objectMapper.writeValueAsString(screenerResults)
+        );
     }
 
     private boolean isUserAuthorizedToAccessScreenerByScreener(String userId, Screener screener) {
@@ -250,8 +201,4 @@ public class DecisionResource {
         }
         return false;
     }
-
-    private boolean isLibraryCheck(CheckConfig checkConfig){
-        return checkConfig.getEvaluationUrl() != null && !checkConfig.getEvaluationUrl().isBlank();
-    }
 }
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Path("/api/custom-checks")
 public class EligibilityCheckResource {
@@ -41,27 +43,28 @@ public class EligibilityCheckResource {
     // By default, returns the most recent versions of all published checks owned by the calling user
     // If the query parameter 'working' is set to true,
     // then all the working check objects owned by the user are returned
+    // Only reads Firestore, so the queries run without holding a worker thread
     @GET
-    public Response getCustomChecks(
+    public CompletionStage<Response> getCustomChecks(
         @Context SecurityIdentity identity,
         @QueryParam("working") Boolean working
     ) {
         String userId = AuthUtils.getUserId(identity);
         if (userId == null) {
-            return Response.status(Response.Status.UNAUTHORIZED).build();
+            return CompletableFuture.completedFuture(Response.status(Response.Status.UNAUTHORIZED).build());
         }
 
-        List<EligibilityCheck> checks;
+        CompletionStage<List<EligibilityCheck>> checks;
 
         if (working != null && working){
             Log.info("Fetching all working custom checks. User:  " + userId);
-            checks = eligibilityCheckRepository.getWorkingCustomChecks(userId);
+            checks = eligibilityCheckRepository.getWorkingCustomChecksAsync(userId);
         } else {
             Log.info("Fetching all published custom checks. User:  " + userId);
-            checks = eligibilityCheckRepository.getLatestVersionPublishedCustomChecks(userId);
+            checks = eligibilityCheckRepository.getLatestVersionPublishedCustomChecksAsync(userId);
         }
 
-        return Response.ok(checks, MediaType.APPLICATION_JSON).build();
+        return checks.thenApply(result -> Response.ok(result, MediaType.APPLICATION_JSON).build());
     }
 
     @POST
@@ -187,7 +190,9 @@ public class EligibilityCheckResource {
         try {
             String filePath = storageService.getCheckDmnModelPath(checkId);
             storageService.writeStringToStorage(filePath, dmnModel, "application/xml");
+            dmnService.invalidateCompiledModel(filePath);
             Log.info("Saved DMN model of check " + checkId + " to storage");
+            saveCompiledModel(filePath, dmnModel, check.getName());
 
             // TODO: Need to figure out if we are allowing DMN versions to be mutable. If so, we need to update a
             // last_saved field so that we know the check was updated and needs to be recompiled on evaluation
@@ -297,7 +302,10 @@ public class EligibilityCheckResource {
             // save published check DMN to storage
             if (workingDmnOpt.isPresent()){
                 String workingDmn = workingDmnOpt.get();
-                storageService.writeStringToStorage(storageService.getCheckDmnModelPath(publishedCheckId), workingDmn, "application/xml");
+                String publishedDmnPath = storageService.getCheckDmnModelPath(publishedCheckId);
+                storageService.writeStringToStorage(publishedDmnPath, workingDmn, "application/xml");
+                dmnService.invalidateCompiledModel(publishedDmnPath);
+                saveCompiledModel(publishedDmnPath, workingDmn, check.getName());
             } else {
                 Log.warn("Could not find working DMN model for check " + check.getId() + ", published check created without DMN model");
             }
@@ -378,6 +386,16 @@ public class EligibilityCheckResource {
 
     // ========== Private Helper Methods ==========
 
+    // Compiles the DMN now so evaluations load the stored KieModule instead of compiling it.
+    // A DMN that doesn't compile yet is still saved; evaluation will report its errors.
+    private void saveCompiledModel(String dmnFilePath, String dmnXml, String modelName) {
+        try {
+            dmnService.saveCompiledModel(dmnFilePath, dmnXml, modelName);
+        } catch (Exception e) {
+            Log.info("Compiled DMN model not stored for " + dmnFilePath + ": " + e.getMessage());
+        }
+    }
+
     private String incrementMajorVersion(String version) {
         int[] v = normalize(version);
         v[0]++;         // increment major
@@ -21,6 +21,8 @@ import org.acme.persistence.ScreenerRepository;
 import org.acme.persistence.PublishedScreenerRepository;
 import org.acme.persistence.StorageService;
 import org.acme.service.DmnService;
+import org.acme.service.EvaluationPlanService;
+import org.acme.service.EvaluationResultCache;
 import org.acme.service.InputSchemaService;
 
 import java.util.ArrayList;
@@ -47,6 +49,10 @@ public class ScreenerResource {
 
   @Inject DmnService dmnService;
 
+  @Inject EvaluationPlanService evaluationPlanService;
+
+  @Inject EvaluationResultCache evaluationResultCache;
+
   @Inject
   InputSchemaService inputSchemaService;
 
@@ -225,6 +231,9 @@ public class ScreenerResource {
       }
       Screener screener = screenerOpt.get();
       screenerRepository.publishScreener(screener);
+      publishEvaluationPlan(screener);
+      // Results are keyed by version, so the previous version's are only freed here
+      evaluationResultCache.invalidateScreener(screener.getPublishedScreenerId());
       return Response.ok().build();
     } catch (Exception e) {
       Log.error("Error: Error updating screener to published. Screener: " + screenerId);
@@ -232,6 +241,18 @@ public class ScreenerResource {
     }
   }
 
+  // The plan only speeds up evaluation; published screeners without one get a plan built on demand
+  private void publishEvaluationPlan(Screener screener) {
+    try {
+      List<Benefit> benefits = screenerRepository.getBenefitsInScreener(screener);
+      evaluationPlanService.publishPlan(
+          evaluationPlanService.buildPlan(
+              screener.getPublishedScreenerId(), screener.getLastPublishDate(), benefits));
+    } catch (Exception e) {
+      Log.error("Failed to publish evaluation plan for screener " + screener.getId(), e);
+    }
+  }
+
   @DELETE
   @Path("/screener/delete")
   public Response deleteScreener(
@@ -3,84 +3,60 @@ package org.acme.functions;
 import io.quarkus.arc.Arc;
 import io.quarkus.arc.Unremovable;
 import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Location lookups (zip code, county, state) for FEEL expressions.
+ *
+ * The locations table is read from the SQLite datasource once at startup into an in-memory LocationTable,
+ * so lookups made while evaluating residence checks never touch JDBC.
+ */
+@Startup
 @Unremovable
 @ApplicationScoped
 public class LocationService {
 
+    private static volatile LocationTable table;
+
     @Inject
     AgroalDataSource dataSource;
 
+    @PostConstruct
+    void loadTable() {
+        try (Connection connection = getDbConnection()) {
+            table = LocationTable.load(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load the " + LocationTable.TABLE + " table", e);
+        }
+        Log.info("Loaded " + table.size() + " locations");
+    }
+
     public Connection getDbConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
-    public static List<String> lookup(String column, Map<String, Object> filters) {
-        List<String> results = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT DISTINCT ").append(column).append(" FROM locations WHERE ");
-
-        // construct WHERE clause; assume everything is ANDed together
-        boolean first = true;
-        for (String key : filters.keySet()) {
-            if (!first) {
-                sql.append(" AND ");
-            }
-            sql.append(key).append(" = ?");
-            first = false;
-        }
-
-        LocationService service = Arc.container().instance(LocationService.class).get();
-
-        Connection connection = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-
-        try {
-            connection = service.getDbConnection();
-            pstmt = connection.prepareStatement(sql.toString());
-
-            // Set the values dynamically
-            int index = 1;
-            for (Object value : filters.values()) {
-                String stringValue = value.toString(); // db only has strings
-                pstmt.setString(index++, stringValue);
-            }
-
-            rs = pstmt.executeQuery();
+    LocationTable getTable() {
+        return table;
+    }
 
-            while(rs.next()) {
-                String thisString = rs.getString(column);
-                results.add(thisString);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (rs != null) {
-                    rs.close();
-                }
-                if (pstmt != null) {
-                    pstmt.close();
-                }
-                if (connection != null) {
-                    connection.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+    /**
+     * SELECT DISTINCT column FROM locations WHERE key1 = value1 AND ..., answered from memory.
+     */
+    public static List<String> lookup(String column, Map<String, Object> filters) {
+        LocationTable loaded = table;
+        if (loaded == null) {
+            // Not started yet: creating the bean loads the table
+            loaded = Arc.container().instance(LocationService.class).get().getTable();
         }
-
-        return results;
-
+        return loaded.lookup(column, filters);
     }
 }
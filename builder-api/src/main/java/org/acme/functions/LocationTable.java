@@ -0,0 +1,206 @@
+package org.acme.functions;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable in-memory copy of the locations table, answering LocationService lookups without JDBC.
+ *
+ * Each column is dictionary-encoded (every distinct string is stored once and rows hold its code) and
+ * indexed by value, so a lookup intersects the rows matching each filter and collects the distinct
+ * values of the requested column. Answers are kept per query once computed; only filter values present
+ * in the table produce an answer worth keeping, so they are bounded by the data.
+ */
+final class LocationTable {
+
+    static final String TABLE = "locations";
+
+    // Beyond this many distinct queries answers are still computed, just not kept
+    private static final int MAX_KEPT_ANSWERS = 100_000;
+
+    private record Query(String column, Map<String, String> filters) {}
+
+    private static final class Column {
+        final String name;
+        final String[] dictionary;
+        final int[] codes;
+        final Map<String, int[]> rowsByValue;
+
+        Column(String name, String[] dictionary, int[] codes, Map<String, int[]> rowsByValue) {
+            this.name = name;
+            this.dictionary = dictionary;
+            this.codes = codes;
+            this.rowsByValue = rowsByValue;
+        }
+    }
+
+    // Column names are case-insensitive, as they were in the SQL queries this replaces
+    private final Map<String, Column> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final int rowCount;
+    private final Map<Query, List<String>> answers = new ConcurrentHashMap<>();
+
+    private LocationTable(List<String> columnNames, List<String[]> rows) {
+        this.rowCount = rows.size();
+        for (int c = 0; c < columnNames.size(); c++) {
+            columns.put(columnNames.get(c), encode(columnNames.get(c), c, rows));
+        }
+    }
+
+    /**
+     * Reads the whole locations table through the given connection.
+     */
+    static LocationTable load(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT * FROM " + TABLE)) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            List<String> columnNames = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columnNames.add(metaData.getColumnName(i));
+            }
+
+            List<String[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                String[] row = new String[columnNames.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+                rows.add(row);
+            }
+            return new LocationTable(columnNames, rows);
+        }
+    }
+
+    static LocationTable of(List<String> columnNames, List<String[]> rows) {
+        return new LocationTable(columnNames, rows);
+    }
+
+    int size() {
+        return rowCount;
+    }
+
+    /**
+     * Distinct values of the column over the rows where every filter column equals its value
+     * (compared as strings), in table order.
+     *
+     * Unknown columns and empty filters give an empty list, as the SQL query failing did before.
+     */
+    List<String> lookup(String column, Map<String, Object> filters) {
+        Column target = columns.get(column);
+        if (target == null || filters == null || filters.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, String> filterValues = new LinkedHashMap<>();
+        List<int[]> matchingRows = new ArrayList<>();
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            Column filterColumn = columns.get(filter.getKey());
+            if (filterColumn == null || filter.getValue() == null) {
+                return List.of();
+            }
+            String value = filter.getValue().toString(); // the table only has strings
+            int[] rows = filterColumn.rowsByValue.get(value);
+            if (rows == null) {
+                return List.of();
+            }
+            filterValues.put(filterColumn.name, value);
+            matchingRows.add(rows);
+        }
+
+        Query query = new Query(target.name, filterValues);
+        List<String> answer = answers.get(query);
+        if (answer == null) {
+            answer = distinct(target, intersect(matchingRows));
+            if (answers.size() < MAX_KEPT_ANSWERS) {
+                answers.put(query, answer);
+            }
+        }
+        return answer;
+    }
+
+    private static Column encode(String name, int columnIndex, List<String[]> rows) {
+        Map<String, Integer> codesByValue = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] codes = new int[rows.size()];
+        int[] counts = new int[rows.size()];
+
+        for (int row = 0; row < rows.size(); row++) {
+            String value = rows.get(row)[columnIndex];
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codesByValue.put(value, code);
+                dictionary.add(value);
+            }
+            codes[row] = code;
+            counts[code]++;
+        }
+
+        // Row ids per code, ascending; NULLs never equal a filter value, so they get no entry
+        int[][] rowsByCode = new int[dictionary.size()][];
+        int[] filled = new int[dictionary.size()];
+        for (int code = 0; code < rowsByCode.length; code++) {
+            rowsByCode[code] = new int[counts[code]];
+        }
+        for (int row = 0; row < codes.length; row++) {
+            rowsByCode[codes[row]][filled[codes[row]]++] = row;
+        }
+        Map<String, int[]> rowsByValue = new HashMap<>();
+        for (int code = 0; code < rowsByCode.length; code++) {
+            if (dictionary.get(code) != null) {
+                rowsByValue.put(dictionary.get(code), rowsByCode[code]);
+            }
+        }
+
+        return new Column(name, dictionary.toArray(new String[0]), codes, rowsByValue);
+    }
+
+    // Rows present in every list, ascending; walks the shortest list and probes the others
+    private static int[] intersect(List<int[]> matchingRows) {
+        if (matchingRows.size() == 1) {
+            return matchingRows.get(0);
+        }
+        List<int[]> bySize = new ArrayList<>(matchingRows);
+        bySize.sort(Comparator.comparingInt(rows -> rows.length));
+
+        int[] smallest = bySize.get(0);
+        int[] result = new int[smallest.length];
+        int count = 0;
+        for (int row : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < bySize.size() && inAll; i++) {
+                inAll = Arrays.binarySearch(bySize.get(i), row) >= 0;
+            }
+            if (inAll) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static List<String> distinct(Column column, int[] rows) {
+        BitSet seen = new BitSet(column.dictionary.length);
+        List<String> values = new ArrayList<>();
+        for (int row : rows) {
+            int code = column.codes[row];
+            if (!seen.get(code)) {
+                seen.set(code);
+                values.add(column.dictionary[code]);
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -1,10 +1,12 @@
 package org.acme.model.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CheckConfig {
@@ -17,7 +19,9 @@ public class CheckConfig {
     private Map<String, Object> parameters;
     // evaluation endpoint url for library checks
     private String evaluationUrl;
-    private JsonNode inputDefinition;
+    private volatile JsonNode inputDefinition;
+    // Stored form of inputDefinition, converted to a JsonNode the first time it is read
+    private volatile Supplier<JsonNode> inputDefinitionLoader;
     private List<ParameterDefinition> parameterDefinitions;
     // optional alias name for this check instance
     private String aliasName;
@@ -80,13 +84,25 @@ public class CheckConfig {
     }
 
     public JsonNode getInputDefinition() {
+        Supplier<JsonNode> loader = inputDefinitionLoader;
+        if (loader != null) {
+            inputDefinition = loader.get();
+            inputDefinitionLoader = null;
+        }
         return inputDefinition;
     }
 
     public void setInputDefinition(JsonNode inputDefinition) {
+        this.inputDefinitionLoader = null;
         this.inputDefinition = inputDefinition;
     }
 
+    @JsonIgnore
+    public void setInputDefinitionLoader(Supplier<JsonNode> inputDefinitionLoader) {
+        this.inputDefinition = null;
+        this.inputDefinitionLoader = inputDefinitionLoader;
+    }
+
     public List<ParameterDefinition> getParameterDefinitions() {
         return parameterDefinitions;
     }
@@ -1,9 +1,11 @@
 package org.acme.model.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class EligibilityCheck {
@@ -13,7 +15,9 @@ public class EligibilityCheck {
     private String description;
     private String version;
     private String dmnModel;
-    private JsonNode inputDefinition;
+    private volatile JsonNode inputDefinition;
+    // Stored form of inputDefinition, converted to a JsonNode the first time it is read
+    private volatile Supplier<JsonNode> inputDefinitionLoader;
     private List<ParameterDefinition> parameterDefinitions;
     private String ownerId;
     // API endpoint for evaluating library checks
@@ -103,13 +107,25 @@ public class EligibilityCheck {
     }
 
     public JsonNode getInputDefinition() {
+        Supplier<JsonNode> loader = inputDefinitionLoader;
+        if (loader != null) {
+            inputDefinition = loader.get();
+            inputDefinitionLoader = null;
+        }
         return inputDefinition;
     }
 
     public void setInputDefinition(JsonNode inputDefinition) {
+        this.inputDefinitionLoader = null;
         this.inputDefinition = inputDefinition;
     }
 
+    @JsonIgnore
+    public void setInputDefinitionLoader(Supplier<JsonNode> inputDefinitionLoader) {
+        this.inputDefinition = null;
+        this.inputDefinitionLoader = inputDefinitionLoader;
+    }
+
     public String getEvaluationUrl() {
         return evaluationUrl;
     }
@@ -0,0 +1,64 @@
+package org.acme.model.domain;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to evaluate a screener, resolved ahead of time from its benefits and check configs:
+ * which checks go to library-api (and which check version), which DMN file backs each custom check, the static
+ * parameters each check is called with and how check results roll up into a benefit result.
+ *
+ * Plans for published screeners are built at publish time and stored next to the published form schema.
+ * They hold no library-api host: that depends on the deployment and is resolved from the check version
+ * when the plan is evaluated.
+ */
+public record EvaluationPlan(String screenerId, String version, List<PlannedBenefit> benefits) {
+
+    public enum CheckKind { LIBRARY, CUSTOM }
+
+    /** How a benefit result is derived from its check results. */
+    public enum Aggregation {
+        // TRUE if every check is TRUE, FALSE if any check is FALSE, otherwise UNABLE_TO_DETERMINE
+        ALL_CHECKS
+    }
+
+    public EvaluationPlan {
+        benefits = benefits != null ? List.copyOf(benefits) : List.of();
+    }
+
+    public record PlannedBenefit(String id, String name, Aggregation aggregation, List<PlannedCheck> checks) {
+        public PlannedBenefit {
+            aggregation = aggregation != null ? aggregation : Aggregation.ALL_CHECKS;
+            checks = checks != null ? List.copyOf(checks) : List.of();
+        }
+    }
+
+    /**
+     * @param checkVersion    library checks: version of the check, which selects the library-api host
+     * @param evaluationUrl   library checks: path of the check's decision service on that host
+     * @param dmnPath         custom checks: storage path of the check's DMN file
+     * @param parameters      parameters configured on the check in the screener
+     * @param defaultAsOfDate whether asOfDate is declared but not configured, and so defaults to the evaluation date
+     */
+    public record PlannedCheck(
+        String checkId,
+        String checkName,
+        String aliasName,
+        String checkModule,
+        String checkVersion,
+        CheckKind kind,
+        String evaluationUrl,
+        String dmnPath,
+        Map<String, Object> parameters,
+        boolean defaultAsOfDate
+    ) {
+        public PlannedCheck {
+            // Parameter values may legitimately be null, so Map.copyOf is not an option
+            parameters = parameters != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(parameters))
+                : Map.of();
+        }
+    }
+}
@@ -18,6 +18,7 @@ public class Screener {
   /* Publishing properties */
   private String publishedScreenerId;
   private String lastPublishDate;
+  private String formSchemaPath;
 
   public Screener(Map<String, Object> model) {
     this.formSchema = model;
@@ -86,6 +87,14 @@ public class Screener {
     return this.lastPublishDate;
   }
 
+  public String getFormSchemaPath() {
+    return this.formSchemaPath;
+  }
+
+  public void setFormSchemaPath(String formSchemaPath) {
+    this.formSchemaPath = formSchemaPath;
+  }
+
   public List<BenefitDetail> getBenefits() {
     return benefits;
   }
@@ -0,0 +1,175 @@
+package org.acme.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import jakarta.annotation.Priority;
+import jakarta.decorator.Decorator;
+import jakarta.decorator.Delegate;
+import jakarta.inject.Inject;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves StorageService reads from StorageCache and invalidates cached paths on writes.
+ *
+ * Applies to whichever StorageService is active; storage.cache.enabled=false passes every call straight
+ * through.
+ */
+@Decorator
+@Priority(10)
+public class CachingStorageService implements StorageService {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> FORM_SCHEMA_TYPE = new TypeReference<>() {};
+
+    @Inject
+    @Delegate
+    StorageService delegate;
+
+    @Inject
+    StorageCache cache;
+
+    private final StorageCache.Origin origin = new StorageCache.Origin() {
+        @Override
+        public Optional<VersionedFile> read(String filePath) throws Exception {
+            return delegate.getVersionedFile(filePath);
+        }
+
+        @Override
+        public Optional<Long> generation(String filePath) throws Exception {
+            return delegate.getFileGeneration(filePath);
+        }
+    };
+
+    @Override
+    public void writeStringToStorage(String filePath, String content, String contentType) throws Exception {
+        try {
+            delegate.writeStringToStorage(filePath, content, contentType);
+        } finally {
+            cache.invalidate(filePath);
+        }
+    }
+
+    @Override
+    public void writeBytesToStorage(String filePath, byte[] content, String contentType) {
+        try {
+            delegate.writeBytesToStorage(filePath, content, contentType);
+        } finally {
+            cache.invalidate(filePath);
+        }
+    }
+
+    @Override
+    public void writeJsonToStorage(String filePath, JsonNode json) {
+        try {
+            delegate.writeJsonToStorage(filePath, json);
+        } finally {
+            cache.invalidate(filePath);
+        }
+    }
+
+    @Override
+    public Optional<InputStream> getFileInputStreamFromStorage(String filePath) {
+        if (!cache.isEnabled()) {
+            return delegate.getFileInputStreamFromStorage(filePath);
+        }
+        try {
+            return cache.getStream(filePath, origin);
+        } catch (Exception e) {
+            Log.error("Error fetching file from storage: ", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> getStringFromStorage(String filePath) {
+        if (!cache.isEnabled()) {
+            return delegate.getStringFromStorage(filePath);
+        }
+        return getFileBytesFromStorage(filePath).map(content -> new String(content, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<byte[]> getFileBytesFromStorage(String filePath) {
+        if (!cache.isEnabled()) {
+            return delegate.getFileBytesFromStorage(filePath);
+        }
+        try {
+            return cache.getBytes(filePath, origin);
+        } catch (Exception e) {
+            Log.error("Error fetching file from storage: ", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<VersionedFile> getVersionedFile(String filePath) throws Exception {
+        return delegate.getVersionedFile(filePath);
+    }
+
+    @Override
+    public Optional<Long> getFileGeneration(String filePath) throws Exception {
+        return delegate.getFileGeneration(filePath);
+    }
+
+    @Override
+    public String getScreenerWorkingFormSchemaPath(String screenerId) {
+        return delegate.getScreenerWorkingFormSchemaPath(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId) {
+        return delegate.getScreenerPublishedFormSchemaPath(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId, String version) {
+        return delegate.getScreenerPublishedFormSchemaPath(screenerId, version);
+    }
+
+    @Override
+    public String getScreenerPublishedEvaluationPlanPath(String screenerId) {
+        return delegate.getScreenerPublishedEvaluationPlanPath(screenerId);
+    }
+
+    @Override
+    public String getCheckDmnModelPath(String checkId) {
+        return delegate.getCheckDmnModelPath(checkId);
+    }
+
+    @Override
+    public String getCompiledDmnModelPath(String dmnFilePath) {
+        return delegate.getCompiledDmnModelPath(dmnFilePath);
+    }
+
+    @Override
+    public Map<String, Object> getFormSchemaFromStorage(String filePath) {
+        if (!cache.isEnabled()) {
+            return delegate.getFormSchemaFromStorage(filePath);
+        }
+        Optional<InputStream> streamOpt = getFileInputStreamFromStorage(filePath);
+        if (streamOpt.isEmpty()) {
+            return null;
+        }
+        try (InputStream stream = streamOpt.get()) {
+            return mapper.readValue(stream, FORM_SCHEMA_TYPE);
+        } catch (Exception e) {
+            Log.error("Error parsing form schema from storage: ", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId, String version) throws Exception {
+        try {
+            delegate.updatePublishedFormSchemaArtifact(screenerId, publishedScreenerId, version);
+        } finally {
+            cache.invalidate(delegate.getScreenerPublishedFormSchemaPath(publishedScreenerId, version));
+        }
+    }
+}
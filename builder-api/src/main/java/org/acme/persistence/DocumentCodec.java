@@ -0,0 +1,22 @@
+package org.acme.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a domain object to and from the field map of its Firestore document.
+ */
+public interface DocumentCodec<T> {
+
+    T decode(Map<String, Object> data);
+
+    /**
+     * Returns the document fields for the value. Null properties are left out, as Firestore writes
+     * have always done.
+     */
+    Map<String, Object> encode(T value);
+
+    default List<T> decodeAll(List<Map<String, Object>> documents) {
+        return documents.stream().map(this::decode).toList();
+    }
+}
@@ -0,0 +1,264 @@
+package org.acme.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.BenefitDetail;
+import org.acme.model.domain.CheckConfig;
+import org.acme.model.domain.EligibilityCheck;
+import org.acme.model.domain.ParameterDefinition;
+import org.acme.model.domain.Screener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Typed Firestore document codecs for the domain objects stored in Firestore.
+ *
+ * Each codec reads and writes the document fields directly rather than round-tripping the whole object
+ * graph through ObjectMapper.convertValue, and uses the same field names Jackson would. The only values
+ * still converted by Jackson are inputDefinition trees, through one shared mapper, and only when a caller
+ * reads them: decoded checks hold the stored value and turn it into a JsonNode on first access.
+ */
+public final class DocumentCodecs {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static {
+        // Build the JsonNode and Map (de)serializers up front rather than on the first request
+        MAPPER.convertValue(MAPPER.valueToTree(Map.of("type", "object", "properties", List.of(1L, 1.0, true))), Object.class);
+    }
+
+    public static final DocumentCodec<ParameterDefinition> PARAMETER_DEFINITION = new DocumentCodec<>() {
+        @Override
+        public ParameterDefinition decode(Map<String, Object> data) {
+            ParameterDefinition definition = new ParameterDefinition();
+            definition.setKey(string(data, "key"));
+            definition.setLabel(string(data, "label"));
+            definition.setRequired(Boolean.TRUE.equals(bool(data, "required")));
+            definition.setType(string(data, "type"));
+            definition.setOptions(string(data, "options"));
+            return definition;
+        }
+
+        @Override
+        public Map<String, Object> encode(ParameterDefinition definition) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "key", definition.getKey());
+            put(data, "label", definition.getLabel());
+            put(data, "required", definition.isRequired());
+            put(data, "type", definition.getType());
+            put(data, "options", definition.getOptions());
+            return data;
+        }
+    };
+
+    public static final DocumentCodec<BenefitDetail> BENEFIT_DETAIL = new DocumentCodec<>() {
+        @Override
+        public BenefitDetail decode(Map<String, Object> data) {
+            return new BenefitDetail(string(data, "id"), string(data, "name"), string(data, "description"));
+        }
+
+        @Override
+        public Map<String, Object> encode(BenefitDetail detail) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "id", detail.getId());
+            put(data, "name", detail.getName());
+            put(data, "description", detail.getDescription());
+            return data;
+        }
+    };
+
+    public static final DocumentCodec<CheckConfig> CHECK_CONFIG = new DocumentCodec<>() {
+        @Override
+        public CheckConfig decode(Map<String, Object> data) {
+            CheckConfig checkConfig = new CheckConfig();
+            checkConfig.setCheckId(string(data, "checkId"));
+            checkConfig.setSourceCheckId(string(data, "sourceCheckId"));
+            checkConfig.setCheckName(string(data, "checkName"));
+            checkConfig.setCheckVersion(string(data, "checkVersion"));
+            checkConfig.setCheckModule(string(data, "checkModule"));
+            checkConfig.setParameters(map(data, "parameters"));
+            checkConfig.setEvaluationUrl(string(data, "evaluationUrl"));
+            setLazily(data.get("inputDefinition"), checkConfig::setInputDefinitionLoader);
+            checkConfig.setParameterDefinitions(list(data, "parameterDefinitions", PARAMETER_DEFINITION));
+            checkConfig.setAliasName(string(data, "aliasName"));
+            return checkConfig;
+        }
+
+        @Override
+        public Map<String, Object> encode(CheckConfig checkConfig) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "checkId", checkConfig.getCheckId());
+            put(data, "sourceCheckId", checkConfig.getSourceCheckId());
+            put(data, "checkName", checkConfig.getCheckName());
+            put(data, "checkVersion", checkConfig.getCheckVersion());
+            put(data, "checkModule", checkConfig.getCheckModule());
+            put(data, "parameters", checkConfig.getParameters());
+            put(data, "evaluationUrl", checkConfig.getEvaluationUrl());
+            put(data, "inputDefinition", tree(checkConfig.getInputDefinition()));
+            put(data, "parameterDefinitions", encodeAll(checkConfig.getParameterDefinitions(), PARAMETER_DEFINITION));
+            put(data, "aliasName", checkConfig.getAliasName());
+            return data;
+        }
+    };
+
+    public static final DocumentCodec<Benefit> BENEFIT = new DocumentCodec<>() {
+        @Override
+        public Benefit decode(Map<String, Object> data) {
+            return new Benefit(
+                string(data, "id"),
+                string(data, "name"),
+                string(data, "description"),
+                string(data, "ownerId"),
+                list(data, "checks", CHECK_CONFIG)
+            );
+        }
+
+        @Override
+        public Map<String, Object> encode(Benefit benefit) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "id", benefit.getId());
+            put(data, "description", benefit.getDescription());
+            put(data, "name", benefit.getName());
+            put(data, "checks", encodeAll(benefit.getChecks(), CHECK_CONFIG));
+            put(data, "ownerId", benefit.getOwnerId());
+            return data;
+        }
+    };
+
+    public static final DocumentCodec<Screener> SCREENER = new DocumentCodec<>() {
+        @Override
+        public Screener decode(Map<String, Object> data) {
+            Screener screener = new Screener();
+            screener.setId(string(data, "id"));
+            screener.setOwnerId(string(data, "ownerId"));
+            screener.setScreenerName(string(data, "screenerName"));
+            screener.setFormSchema(map(data, "formSchema"));
+            screener.setBenefits(list(data, "benefits", BENEFIT_DETAIL));
+            screener.setPublishedScreenerId(string(data, "publishedScreenerId"));
+            String lastPublishDate = string(data, "lastPublishDate");
+            screener.setLastPublishDate(lastPublishDate != null ? lastPublishDate : string(data, "lastPublishedDate"));
+            screener.setFormSchemaPath(string(data, "formSchemaPath"));
+            return screener;
+        }
+
+        @Override
+        public Map<String, Object> encode(Screener screener) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "formSchema", screener.getFormSchema());
+            put(data, "ownerId", screener.getOwnerId());
+            put(data, "screenerName", screener.getScreenerName());
+            put(data, "id", screener.getId());
+            put(data, "publishedScreenerId", screener.getPublishedScreenerId());
+            put(data, "lastPublishDate", screener.getLastPublishDate());
+            put(data, "formSchemaPath", screener.getFormSchemaPath());
+            put(data, "benefits", encodeAll(screener.getBenefits(), BENEFIT_DETAIL));
+            return data;
+        }
+    };
+
+    public static final DocumentCodec<EligibilityCheck> ELIGIBILITY_CHECK = new DocumentCodec<>() {
+        @Override
+        public EligibilityCheck decode(Map<String, Object> data) {
+            EligibilityCheck check = new EligibilityCheck();
+            check.setId(string(data, "id"));
+            check.setName(string(data, "name"));
+            check.setModule(string(data, "module"));
+            check.setDescription(string(data, "description"));
+            check.setVersion(string(data, "version"));
+            check.setDmnModel(string(data, "dmnModel"));
+            setLazily(data.get("inputDefinition"), check::setInputDefinitionLoader);
+            check.setParameterDefinitions(list(data, "parameterDefinitions", PARAMETER_DEFINITION));
+            check.setOwnerId(string(data, "ownerId"));
+            check.setEvaluationUrl(string(data, "evaluationUrl"));
+            check.setIsArchived(bool(data, "isArchived"));
+            return check;
+        }
+
+        @Override
+        public Map<String, Object> encode(EligibilityCheck check) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            put(data, "id", check.getId());
+            put(data, "name", check.getName());
+            put(data, "module", check.getModule());
+            put(data, "description", check.getDescription());
+            put(data, "version", check.getVersion());
+            put(data, "dmnModel", check.getDmnModel());
+            put(data, "inputDefinition", tree(check.getInputDefinition()));
+            put(data, "parameterDefinitions", encodeAll(check.getParameterDefinitions(), PARAMETER_DEFINITION));
+            put(data, "ownerId", check.getOwnerId());
+            put(data, "evaluationUrl", check.getEvaluationUrl());
+            put(data, "isArchived", check.getIsArchived());
+            return data;
+        }
+    };
+
+    private DocumentCodecs() {
+    }
+
+    private static String string(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return String.valueOf(value);
+    }
+
+    private static Boolean bool(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.valueOf(String.valueOf(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> data, String field) {
+        // Firestore hands back a fresh map per read, so nested maps are used as they are
+        return data.get(field) instanceof Map<?, ?> value ? (Map<String, Object>) value : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(Map<String, Object> data, String field, DocumentCodec<T> codec) {
+        if (!(data.get(field) instanceof List<?> values)) {
+            return null;
+        }
+        List<T> decoded = new ArrayList<>(values.size());
+        for (Object value : values) {
+            decoded.add(value instanceof Map<?, ?> element ? codec.decode((Map<String, Object>) element) : null);
+        }
+        return decoded;
+    }
+
+    private static <T> List<Map<String, Object>> encodeAll(List<T> values, DocumentCodec<T> codec) {
+        if (values == null) {
+            return null;
+        }
+        List<Map<String, Object>> encoded = new ArrayList<>(values.size());
+        for (T value : values) {
+            encoded.add(value != null ? codec.encode(value) : null);
+        }
+        return encoded;
+    }
+
+    private static void setLazily(Object storedTree, Consumer<Supplier<JsonNode>> setter) {
+        if (storedTree != null) {
+            setter.accept(() -> MAPPER.valueToTree(storedTree));
+        }
+    }
+
+    private static Object tree(JsonNode node) {
+        return node != null && !node.isNull() ? MAPPER.convertValue(node, Object.class) : null;
+    }
+
+    private static void put(Map<String, Object> data, String field, Object value) {
+        if (value != null) {
+            data.put(field, value);
+        }
+    }
+}
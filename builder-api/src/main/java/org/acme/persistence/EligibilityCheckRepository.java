@@ -5,23 +5,32 @@ import org.acme.model.domain.EligibilityCheck;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 public interface EligibilityCheckRepository {
 
     List<EligibilityCheck> getWorkingCustomChecks(String userId);
 
+    CompletionStage<List<EligibilityCheck>> getWorkingCustomChecksAsync(String userId);
+
     List<EligibilityCheck> getPublishedCheckVersions(EligibilityCheck workingCustomCheck);
 
     List<EligibilityCheck> getLatestVersionPublishedCustomChecks(String userId);
 
+    CompletionStage<List<EligibilityCheck>> getLatestVersionPublishedCustomChecksAsync(String userId);
+
     List<EligibilityCheck> getPublishedCustomChecks(String userId);
 
+    CompletionStage<List<EligibilityCheck>> getPublishedCustomChecksAsync(String userId);
+
     Optional<EligibilityCheck> getWorkingCustomCheck(String userId, String checkId);
 
     Optional<EligibilityCheck> getWorkingCustomCheck(String userId, String checkId, boolean includeArchived);
 
     Optional<EligibilityCheck> getPublishedCustomCheck(String userId, String checkId);
 
+    CompletionStage<Optional<EligibilityCheck>> getPublishedCustomCheckAsync(String userId, String checkId);
+
     String saveNewWorkingCustomCheck(EligibilityCheck check) throws Exception;
 
     String saveNewPublishedCustomCheck(EligibilityCheck check) throws Exception;
@@ -1,167 +1,158 @@
 package org.acme.persistence;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.cloud.firestore.*;
 import com.google.firebase.cloud.FirestoreClient;
 import io.quarkus.logging.Log;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 
 public class FirestoreUtils {
 
+    // Firestore rejects commits with more writes than this
+    public static final int MAX_BATCH_WRITES = 500;
+
     private static final Firestore db = FirestoreClient.getFirestore();
 
-    public static List<Map<String, Object>> getAllDocsInCollection(String collection){
-        try {
-            ApiFuture<QuerySnapshot> query = db.collection(collection)
-                    .get();
-            List<QueryDocumentSnapshot> documents;
-            documents = query.get().getDocuments();
-
-            return documents.stream()
-                    .map(doc -> {
-                        Map<String, Object> data = doc.getData();
-                        data.put("id", doc.getId());
-                        return data;
-                    })
-                    .toList();
-
-        }catch(Exception e){
-            Log.error("Error fetching documents from firestore: ", e);
-            return new ArrayList<>();
+    public enum WriteType { SET, MERGE, DELETE }
+
+    // One document write, to be applied as part of a batch
+    public record DocumentWrite(WriteType type, String collectionPath, String documentId, Map<String, Object> data) {
+        public static DocumentWrite set(String collectionPath, String documentId, Map<String, Object> data) {
+            return new DocumentWrite(WriteType.SET, collectionPath, documentId, data);
+        }
+
+        public static DocumentWrite merge(String collectionPath, String documentId, Map<String, Object> data) {
+            return new DocumentWrite(WriteType.MERGE, collectionPath, documentId, data);
+        }
+
+        public static DocumentWrite delete(String collectionPath, String documentId) {
+            return new DocumentWrite(WriteType.DELETE, collectionPath, documentId, null);
         }
     }
 
+    // Blocking reads below wait on their async counterpart; both log and swallow read errors the same way
+
+    public static List<Map<String, Object>> getAllDocsInCollection(String collection){
+        return getAllDocsInCollectionAsync(collection).toCompletableFuture().join();
+    }
+
+    public static CompletionStage<List<Map<String, Object>>> getAllDocsInCollectionAsync(String collection){
+        return queryAsync(db.collection(collection));
+    }
+
     public static List<Map<String, Object>> getFirestoreDocsByField(String collection, String field, String value) {
-        System.out.println("Fetching documents from collection: " + collection + " where " + field + " = " + value);
-        System.out.println("Using Firestore instance: " + db.listCollections());
-        try {
-            ApiFuture<QuerySnapshot> query = db.collection(collection)
-                    .whereEqualTo(field, value)
-                    .get();
-            List<QueryDocumentSnapshot> documents;
-            documents = query.get().getDocuments();
-
-            return documents.stream()
-                    .map(doc -> {
-                        Map<String, Object> data = doc.getData();
-                        data.put("id", doc.getId());
-                        return data;
-                    })
-                    .toList();
-        }catch(Exception e){
-            Log.error("Error fetching documents from firestore: ", e);
-            return new ArrayList<>();
-        }
+        return getFirestoreDocsByFieldAsync(collection, field, value).toCompletableFuture().join();
+    }
+
+    public static CompletionStage<List<Map<String, Object>>> getFirestoreDocsByFieldAsync(String collection, String field, Object value) {
+        Log.debug("Fetching documents from collection: " + collection + " where " + field + " = " + value);
+        return queryAsync(db.collection(collection).whereEqualTo(field, value));
     }
 
     public static List<Map<String, Object>> getFirestoreDocsByFields(String collection, Map<String, String> fieldValues) {
-        System.out.println("Fetching documents from collection: " + collection + " with field values: " + fieldValues);
-        System.out.println("Using Firestore instance: " + db.listCollections());
-        try {
-            Query query = db.collection(collection);
-            for (Map.Entry<String, String> entry : fieldValues.entrySet()) {
-                // Add a whereEqualTo clause for each field-value pair
-                query = query.whereEqualTo(entry.getKey(), entry.getValue());
-            }
-            ApiFuture<QuerySnapshot> querySnapshot = query.get();
-            List<QueryDocumentSnapshot> documents;
-            documents = querySnapshot.get().getDocuments();
-
-            return documents.stream()
-                    .map(doc -> {
-                        Map<String, Object> data = doc.getData();
-                        data.put("id", doc.getId());
-                        return data;
-                    })
-                    .toList();
-        }catch(Exception e){
-            Log.error("Error fetching documents from firestore: ", e);
-            return new ArrayList<>();
+        return getFirestoreDocsByFieldsAsync(collection, fieldValues).toCompletableFuture().join();
+    }
+
+    public static CompletionStage<List<Map<String, Object>>> getFirestoreDocsByFieldsAsync(String collection, Map<String, String> fieldValues) {
+        Log.debug("Fetching documents from collection: " + collection + " with field values: " + fieldValues);
+        Query query = db.collection(collection);
+        for (Map.Entry<String, String> entry : fieldValues.entrySet()) {
+            // Add a whereEqualTo clause for each field-value pair
+            query = query.whereEqualTo(entry.getKey(), entry.getValue());
         }
+        return queryAsync(query);
     }
 
     public static List<Map<String, Object>> getFirestoreDocsByField(String collection, String field, boolean value) {
-        try {
-            ApiFuture<QuerySnapshot> query = db.collection(collection)
-                    .whereEqualTo(field, value)
-                    .get();
-            List<QueryDocumentSnapshot> documents;
-            documents = query.get().getDocuments();
-
-            return documents.stream()
-                    .map(doc -> {
-                        Map<String, Object> data = doc.getData();
-                        data.put("id", doc.getId());
-                        return data;
-                    })
-                    .toList();
-
-        }catch(Exception e){
-            Log.error("Error fetching documents from firestore: ", e);
-            return new ArrayList<>();
-        }
+        return getFirestoreDocsByFieldAsync(collection, field, value).toCompletableFuture().join();
     }
 
     public static List<Map<String, Object>> getFirestoreDocsByIds(String collection, List<String> ids) {
+        return getFirestoreDocsByIdsAsync(collection, ids).toCompletableFuture().join();
+    }
+
+    public static CompletionStage<List<Map<String, Object>>> getFirestoreDocsByIdsAsync(String collection, List<String> ids) {
         if (ids == null || ids.isEmpty()) {
-            return new ArrayList<>();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
 
-        try {
-            // Create document references for all IDs
-            List<DocumentReference> docRefs = ids.stream()
-                    .map(id -> db.collection(collection).document(id))
-                    .toList();
-
-            // Batch get all documents
-            List<DocumentSnapshot> snapshots = db.getAll(docRefs.toArray(new DocumentReference[0])).get();
-
-
-            // Might be an issue with the colon in the IDs
-            // Add after getting snapshots
-            for (int i = 0; i < snapshots.size(); i++) {
-                DocumentSnapshot doc = snapshots.get(i);
-                Log.info("Document ID: " + ids.get(i) + ", Exists: " + doc.exists() + ", Reference: " + doc.getReference().getPath());
-            }
-            // Process results, filtering out non-existent documents
-            List<Map<String, Object>> results = new ArrayList<>();
-            for (DocumentSnapshot doc : snapshots) {
-                if (doc.exists()) {
-                    Map<String, Object> data = doc.getData();
-                    data.put("id", doc.getId());
-                    results.add(data);
-                }
-            }
-
-            return results;
-        } catch (Exception e) {
-            Log.error("Error fetching documents from firestore: ", e);
-            return new ArrayList<>();
-        }
+        // Create document references for all IDs
+        DocumentReference[] docRefs = ids.stream()
+                .map(id -> db.collection(collection).document(id))
+                .toArray(DocumentReference[]::new);
+
+        // Batch get all documents
+        return toCompletableFuture(db.getAll(docRefs))
+                .thenApply(snapshots -> {
+                    // Process results, filtering out non-existent documents
+                    List<Map<String, Object>> results = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshots) {
+                        if (doc.exists()) {
+                            results.add(toData(doc));
+                        } else {
+                            Log.debug("Document not found: " + doc.getReference().getPath());
+                        }
+                    }
+                    return results;
+                })
+                .exceptionally(e -> {
+                    Log.error("Error fetching documents from firestore: ", e);
+                    return new ArrayList<>();
+                });
     }
 
     public static Optional<Map<String, Object>> getFirestoreDocById(String collection, String id) {
-        try {
-            DocumentSnapshot doc = db.collection(collection)
-                    .document(id)
-                    .get().get();
+        return getFirestoreDocByIdAsync(collection, id).toCompletableFuture().join();
+    }
 
+    public static CompletionStage<Optional<Map<String, Object>>> getFirestoreDocByIdAsync(String collection, String id) {
+        return toCompletableFuture(db.collection(collection).document(id).get())
+                .thenApply(doc -> doc.exists() ? Optional.of(toData(doc)) : Optional.<Map<String, Object>>empty())
+                .exceptionally(e -> {
+                    Log.error("Error fetching document from firestore: ", e);
+                    return Optional.empty();
+                });
+    }
 
-            if (!doc.exists()) {
-                return Optional.empty();
-            }
+    private static CompletionStage<List<Map<String, Object>>> queryAsync(Query query) {
+        return toCompletableFuture(query.get())
+                .thenApply(querySnapshot -> querySnapshot.getDocuments().stream()
+                        .map(FirestoreUtils::toData)
+                        .toList())
+                .exceptionally(e -> {
+                    Log.error("Error fetching documents from firestore: ", e);
+                    return new ArrayList<>();
+                });
+    }
 
-            Map<String, Object> data = doc.getData();
-            data.put("id", doc.getId());
+    private static Map<String, Object> toData(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        data.put("id", doc.getId());
+        return data;
+    }
 
-            return Optional.of(data);
+    // Completes on the Firestore client's callback thread, without blocking a caller thread
+    private static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
 
-        }catch(Exception e){
-            Log.error("Error fetching document from firestore: ", e);
-            return Optional.empty();
-        }
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
     }
 
     public static String persistDocument(String collectionName, Map<String, Object> data) throws Exception {
@@ -247,21 +238,75 @@ public class FirestoreUtils {
         }
     }
 
-    public static void deleteAllDocuments(String collectionName) throws Exception {
-        try{
-            db.collection(collectionName).listDocuments().forEach(
-                documentRef -> {
-                    try {
-                        WriteResult result = documentRef.delete().get();
-                        Log.info("Document " + documentRef.getId() + " deleted at " + result.getUpdateTime());
-                    } catch (Exception e) {
-                        Log.error("Failed to delete document: " + documentRef.getId(), e);
-                    }
-                }
+    // Generates a new document id locally, without writing anything
+    public static String newDocumentId(String collectionPath) {
+        return db.collection(collectionPath).document().getId();
+    }
+
+    public static List<String> listDocumentIds(String collectionPath) {
+        List<String> ids = new ArrayList<>();
+        db.collection(collectionPath).listDocuments().forEach(documentRef -> ids.add(documentRef.getId()));
+        return ids;
+    }
+
+    /**
+     * Applies all writes in a single commit: either every write is applied or none is, and readers
+     * never observe a partial result. At most MAX_BATCH_WRITES writes fit in one commit.
+     */
+    public static void commitAtomically(List<DocumentWrite> writes) throws Exception {
+        if (writes.size() > MAX_BATCH_WRITES) {
+            throw new IllegalArgumentException(
+                "Batch of " + writes.size() + " writes exceeds the Firestore limit of " + MAX_BATCH_WRITES
             );
-        } catch (Exception e){
-            Log.error("Failed to delete document from firestore");
-            throw new Exception(e);
+        }
+        WriteBatch batch = db.batch();
+        for (DocumentWrite write : writes) {
+            DocumentReference documentRef = db.collection(write.collectionPath()).document(write.documentId());
+            switch (write.type()) {
+                case SET -> batch.set(documentRef, write.data());
+                case MERGE -> batch.set(documentRef, write.data(), SetOptions.merge());
+                case DELETE -> batch.delete(documentRef);
+            }
+        }
+        try {
+            List<WriteResult> results = batch.commit().get();
+            Log.info("Committed " + results.size() + " writes to Firestore");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exception("Thread interrupted while committing batch to Firestore", e);
+        } catch (ExecutionException e) {
+            throw new Exception("Failed to commit batch to Firestore", e);
+        }
+    }
+
+    /**
+     * Applies the writes in parallel with a BulkWriter, for batches too large for one commit.
+     * Writes are not atomic as a group; each is retried on transient errors and any write that
+     * still fails is reported once all writes have finished.
+     */
+    public static void bulkWrite(List<DocumentWrite> writes) throws Exception {
+        List<ApiFuture<WriteResult>> futures = new ArrayList<>();
+        try {
+            // Closing the writer flushes it and waits for every write to finish
+            try (BulkWriter bulkWriter = db.bulkWriter()) {
+                for (DocumentWrite write : writes) {
+                    DocumentReference documentRef = db.collection(write.collectionPath()).document(write.documentId());
+                    futures.add(switch (write.type()) {
+                        case SET -> bulkWriter.set(documentRef, write.data());
+                        case MERGE -> bulkWriter.set(documentRef, write.data(), SetOptions.merge());
+                        case DELETE -> bulkWriter.delete(documentRef);
+                    });
+                }
+            }
+            for (ApiFuture<WriteResult> future : futures) {
+                future.get();
+            }
+            Log.info("Bulk wrote " + futures.size() + " documents to Firestore");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exception("Thread interrupted while bulk writing to Firestore", e);
+        } catch (ExecutionException e) {
+            throw new Exception("Failed to bulk write documents to Firestore", e);
         }
     }
 
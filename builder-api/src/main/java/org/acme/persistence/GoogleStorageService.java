@@ -3,7 +3,9 @@ package org.acme.persistence;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.ReadChannel;
 import com.google.cloud.storage.*;
+import io.quarkus.arc.properties.IfBuildProperty;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -11,13 +13,20 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import com.google.cloud.storage.Storage;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
 
 @ApplicationScoped
+@IfBuildProperty(name = "storage.provider", stringValue = "gcs", enableIfMissing = true)
 public class GoogleStorageService implements StorageService {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> FORM_SCHEMA_TYPE = new TypeReference<>() {};
+
     @Inject
     Storage storage;
 
@@ -58,7 +67,6 @@ public class GoogleStorageService implements StorageService {
     @Override
     public void writeJsonToStorage(String filePath, JsonNode json){
         try {
-            ObjectMapper mapper = new ObjectMapper();
             byte[] content = mapper.writeValueAsBytes(json);
             BlobId blobId = BlobId.of(bucketName, filePath);
             BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
@@ -71,19 +79,15 @@ public class GoogleStorageService implements StorageService {
         }
     }
 
+    /**
+     * Streams the object straight from a GCS read channel. The first chunk is fetched before returning so a
+     * missing object shows up as empty rather than as an error on the caller's first read. The caller
+     * closes the stream.
+     */
     @Override
     public Optional<InputStream> getFileInputStreamFromStorage(String filePath) {
         try {
-            BlobId blobId = BlobId.of(bucketName, filePath);
-            Blob blob = storage.get(blobId);
-
-            if (blob == null || !blob.exists()) {
-                return Optional.empty();
-            }
-
-            byte[] data = blob.getContent();
-            return Optional.of(new ByteArrayInputStream(data));
-
+            return openStream(filePath);
         } catch (Exception e){
             Log.error("Error fetching file from firebase storage: ", e);
             return Optional.empty();
@@ -93,19 +97,7 @@ public class GoogleStorageService implements StorageService {
     @Override
     public Optional<String> getStringFromStorage(String filePath) {
         try {
-            BlobId blobId = BlobId.of(bucketName, filePath);
-            Blob blob = storage.get(blobId);
-
-            if (blob == null || !blob.exists()) {
-                return Optional.empty();
-            }
-
-            // Get content and convert to UTF-8 String
-            byte[] data = blob.getContent();
-            String content = new String(data, StandardCharsets.UTF_8);
-
-            return Optional.of(content);
-
+            return readBytes(filePath).map(data -> new String(data, StandardCharsets.UTF_8));
         } catch (Exception e) {
             Log.error("Error fetching file from Firebase Storage: ", e);
             return Optional.empty();
@@ -115,53 +107,127 @@ public class GoogleStorageService implements StorageService {
     @Override
     public Optional<byte[]> getFileBytesFromStorage(String filePath) {
         try {
-            BlobId blobId = BlobId.of(bucketName, filePath);
-            Blob blob = storage.get(blobId);
+            return readBytes(filePath);
+        } catch (Exception e){
+            Log.error("Error fetching file from firebase storage: ", e);
+            return Optional.empty();
+        }
+    }
 
-            if (blob == null || !blob.exists()) {
+    /**
+     * Reads the object at the generation its metadata reports, so the content always matches the
+     * generation returned with it. An object rewritten between the two requests is looked up again.
+     */
+    @Override
+    public Optional<VersionedFile> getVersionedFile(String filePath) throws Exception {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<Long> generation = getFileGeneration(filePath);
+            if (generation.isEmpty()) {
                 return Optional.empty();
             }
+            try {
+                byte[] content = storage.readAllBytes(BlobId.of(bucketName, filePath, generation.get()));
+                return Optional.of(new VersionedFile(content, generation.get()));
+            } catch (StorageException e) {
+                if (!isNotFound(e)) {
+                    throw e;
+                }
+            }
+        }
+        throw new Exception("File kept changing while being read from GCS: " + filePath);
+    }
 
-            byte[] data = blob.getContent();
-            return Optional.of(data);
+    // Metadata request for the generation field only; no content is downloaded
+    @Override
+    public Optional<Long> getFileGeneration(String filePath) {
+        Blob blob = storage.get(BlobId.of(bucketName, filePath), Storage.BlobGetOption.fields(Storage.BlobField.GENERATION));
+        return blob == null ? Optional.empty() : Optional.of(blob.getGeneration());
+    }
 
-        } catch (Exception e){
-            Log.error("Error fetching file from firebase storage: ", e);
-            return Optional.empty();
+    // One read RPC; a missing object comes back as a 404 rather than needing a separate metadata lookup
+    private Optional<byte[]> readBytes(String filePath) {
+        try {
+            return Optional.of(storage.readAllBytes(BlobId.of(bucketName, filePath)));
+        } catch (StorageException e) {
+            if (isNotFound(e)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    private Optional<InputStream> openStream(String filePath) throws IOException {
+        ReadChannel channel = storage.reader(BlobId.of(bucketName, filePath));
+        PushbackInputStream stream = new PushbackInputStream(Channels.newInputStream(channel), 1);
+        try {
+            // The channel only issues its read RPC on the first read
+            int first = stream.read();
+            if (first >= 0) {
+                stream.unread(first);
+            }
+            return Optional.of(stream);
+        } catch (IOException | StorageException e) {
+            stream.close();
+            if (isNotFound(e)) {
+                return Optional.empty();
+            }
+            throw e;
         }
     }
+
+    private static boolean isNotFound(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StorageException storageException && storageException.getCode() == 404) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String getScreenerWorkingFormSchemaPath(String screenerId){
-        return "form/working/" + screenerId + ".json";
+        return StoragePaths.screenerWorkingFormSchema(screenerId);
     }
 
     @Override
     public String getScreenerPublishedFormSchemaPath(String screenerId){
-        return "form/published/" + screenerId + ".json";
+        return StoragePaths.screenerPublishedFormSchema(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId, String version){
+        return StoragePaths.screenerPublishedFormSchema(screenerId, version);
+    }
+
+    @Override
+    public String getScreenerPublishedEvaluationPlanPath(String screenerId){
+        return StoragePaths.screenerPublishedEvaluationPlan(screenerId);
     }
 
     @Override
     public String getCheckDmnModelPath(String checkId){
-        return "check/" + checkId + ".dmn";
+        return StoragePaths.checkDmnModel(checkId);
+    }
+
+    @Override
+    public String getCompiledDmnModelPath(String dmnFilePath){
+        return StoragePaths.compiledDmnModel(dmnFilePath);
     }
 
+    /**
+     * Parses the form schema as it streams in from GCS, so the raw JSON is never held in memory.
+     */
     @Override
     public Map<String, Object> getFormSchemaFromStorage(String filePath) {
         try {
-            BlobId blobId = BlobId.of(bucketName, filePath);
-            Blob blob = storage.get(blobId);
-
-            if (blob == null || !blob.exists()) {
+            Optional<InputStream> streamOpt = openStream(filePath);
+            if (streamOpt.isEmpty()) {
                return null;
             }
 
-            byte[] content = blob.getContent();
-
-            ObjectMapper mapper = new ObjectMapper();
-            Map<String, Object> formSchema = mapper.readValue(new ByteArrayInputStream(content), new TypeReference<Map<String, Object>>() {
-            });
-
-            return formSchema;
+            try (InputStream stream = streamOpt.get()) {
+                return mapper.readValue(stream, FORM_SCHEMA_TYPE);
+            }
 
         } catch (Exception e){
             Log.error("Error fetching form model from firebase storage: ", e);
@@ -170,20 +236,23 @@ public class GoogleStorageService implements StorageService {
     }
 
     @Override
-    public void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId) throws Exception {
+    public void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId, String version) throws Exception {
         try {
             String sourcePath = getScreenerWorkingFormSchemaPath(screenerId);
-            String destPath = getScreenerPublishedFormSchemaPath(publishedScreenerId);
+            String destPath = getScreenerPublishedFormSchemaPath(publishedScreenerId, version);
 
-            BlobId sourceBlobId = BlobId.of(bucketName, sourcePath);
-            Blob sourceBlob = storage.get(sourceBlobId);
-            if (sourceBlob == null || !sourceBlob.exists()) {
-                throw new Exception("Working form schema does not exist in cloud storage for screener: " + screenerId);
+            // Copied within GCS, without downloading the schema
+            BlobInfo destBlobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, destPath))
+                    .setContentType("application/json")
+                    .build();
+            try {
+                storage.copy(Storage.CopyRequest.of(BlobId.of(bucketName, sourcePath), destBlobInfo)).getResult();
+            } catch (StorageException e) {
+                if (isNotFound(e)) {
+                    throw new Exception("Working form schema does not exist in cloud storage for screener: " + screenerId);
+                }
+                throw e;
             }
-
-            byte[] content = sourceBlob.getContent();
-
-            writeBytesToStorage(destPath, content, "application/json");
             Log.info("Working form schema copied to published artifact path for screener: " + screenerId);
         } catch (Exception e) {
             Log.error("Error updating published form schema in cloud storage:", e);
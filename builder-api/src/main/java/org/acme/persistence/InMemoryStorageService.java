@@ -0,0 +1,156 @@
+package org.acme.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * StorageService that keeps files in memory, for tests, benchmarks and load tests that should measure
+ * evaluation rather than storage.
+ *
+ * Enabled with storage.provider=memory (the memory profile). Starts empty, or with the files under
+ * storage.memory.seed-directory when set, laid out as in the GCS bucket.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "storage.provider", stringValue = "memory")
+public class InMemoryStorageService implements StorageService {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> FORM_SCHEMA_TYPE = new TypeReference<>() {};
+
+    @ConfigProperty(name = "storage.memory.seed-directory")
+    Optional<String> seedDirectory;
+
+    private final Map<String, VersionedFile> files = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        if (seedDirectory.isEmpty()) {
+            return;
+        }
+        Path seedRoot = Path.of(seedDirectory.get());
+        try (Stream<Path> seedFiles = Files.walk(seedRoot)) {
+            for (Path file : seedFiles.filter(Files::isRegularFile).toList()) {
+                put(seedRoot.relativize(file).toString().replace('\\', '/'), Files.readAllBytes(file));
+            }
+        }
+        Log.info("Seeded in-memory storage with " + files.size() + " files from " + seedRoot);
+    }
+
+    @Override
+    public void writeStringToStorage(String filePath, String content, String contentType) {
+        put(filePath, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeBytesToStorage(String filePath, byte[] content, String contentType) {
+        put(filePath, content);
+    }
+
+    @Override
+    public void writeJsonToStorage(String filePath, JsonNode json) {
+        try {
+            put(filePath, mapper.writeValueAsBytes(json));
+        } catch (Exception e) {
+            Log.error("Error writing JSON to in-memory storage: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<InputStream> getFileInputStreamFromStorage(String filePath) {
+        return getFileBytesFromStorage(filePath).map(ByteArrayInputStream::new);
+    }
+
+    @Override
+    public Optional<String> getStringFromStorage(String filePath) {
+        return getFileBytesFromStorage(filePath).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<byte[]> getFileBytesFromStorage(String filePath) {
+        return getVersionedFile(filePath).map(VersionedFile::content);
+    }
+
+    @Override
+    public Optional<VersionedFile> getVersionedFile(String filePath) {
+        return Optional.ofNullable(files.get(filePath));
+    }
+
+    @Override
+    public Optional<Long> getFileGeneration(String filePath) {
+        return getVersionedFile(filePath).map(VersionedFile::generation);
+    }
+
+    @Override
+    public String getScreenerWorkingFormSchemaPath(String screenerId) {
+        return StoragePaths.screenerWorkingFormSchema(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId) {
+        return StoragePaths.screenerPublishedFormSchema(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId, String version) {
+        return StoragePaths.screenerPublishedFormSchema(screenerId, version);
+    }
+
+    @Override
+    public String getScreenerPublishedEvaluationPlanPath(String screenerId) {
+        return StoragePaths.screenerPublishedEvaluationPlan(screenerId);
+    }
+
+    @Override
+    public String getCheckDmnModelPath(String checkId) {
+        return StoragePaths.checkDmnModel(checkId);
+    }
+
+    @Override
+    public String getCompiledDmnModelPath(String dmnFilePath) {
+        return StoragePaths.compiledDmnModel(dmnFilePath);
+    }
+
+    @Override
+    public Map<String, Object> getFormSchemaFromStorage(String filePath) {
+        Optional<byte[]> content = getFileBytesFromStorage(filePath);
+        if (content.isEmpty()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(content.get(), FORM_SCHEMA_TYPE);
+        } catch (Exception e) {
+            Log.error("Error parsing form model from in-memory storage: ", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId, String version) throws Exception {
+        byte[] content = getFileBytesFromStorage(getScreenerWorkingFormSchemaPath(screenerId))
+            .orElseThrow(() -> new Exception("Working form schema does not exist in in-memory storage for screener: " + screenerId));
+        put(getScreenerPublishedFormSchemaPath(publishedScreenerId, version), content);
+    }
+
+    // Every write gets a new generation, as a GCS object does
+    private void put(String filePath, byte[] content) {
+        files.put(filePath, new VersionedFile(content, generations.incrementAndGet()));
+    }
+}
@@ -0,0 +1,231 @@
+package org.acme.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * StorageService over a local directory, with the same check/ and form/ layout as the GCS bucket.
+ *
+ * Enabled with storage.provider=local (the local profile), for offline development, load tests and
+ * single-node deployments that don't need GCS. Reads are memory-mapped; writes go to a temporary file
+ * that is moved into place, so readers never see a partly written file.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "storage.provider", stringValue = "local")
+public class LocalFileStorageService implements StorageService {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> FORM_SCHEMA_TYPE = new TypeReference<>() {};
+
+    @ConfigProperty(name = "storage.local.root", defaultValue = "local-storage")
+    String rootDirectory;
+
+    private Path root;
+
+    public LocalFileStorageService() {
+    }
+
+    LocalFileStorageService(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(rootDirectory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        Log.info("Using local file storage at " + root);
+    }
+
+    @Override
+    public void writeStringToStorage(String filePath, String content, String contentType) throws Exception {
+        try {
+            write(filePath, content.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e){
+            Log.error("Error writing string to local storage: " + e.getMessage());
+            throw new Exception(e);
+        }
+    }
+
+    @Override
+    public void writeBytesToStorage(String filePath, byte[] content, String contentType){
+        try {
+            write(filePath, content);
+        } catch (Exception e){
+            Log.error("Error writing bytes to local storage: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void writeJsonToStorage(String filePath, JsonNode json){
+        try {
+            write(filePath, mapper.writeValueAsBytes(json));
+        } catch (Exception e){
+            Log.error("Error writing JSON to local storage: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<InputStream> getFileInputStreamFromStorage(String filePath) {
+        try {
+            return Optional.of(MappedFiles.stream(resolve(filePath)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (Exception e){
+            Log.error("Error fetching file from local storage: ", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> getStringFromStorage(String filePath) {
+        return getFileBytesFromStorage(filePath).map(content -> new String(content, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<byte[]> getFileBytesFromStorage(String filePath) {
+        try {
+            return Optional.of(MappedFiles.readAllBytes(resolve(filePath)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (Exception e){
+            Log.error("Error fetching file from local storage: ", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<VersionedFile> getVersionedFile(String filePath) throws Exception {
+        // Writes replace the file, so an unchanged generation before and after the read means the content matches it
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<Long> generation = getFileGeneration(filePath);
+            if (generation.isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                byte[] content = MappedFiles.readAllBytes(resolve(filePath));
+                if (generation.equals(getFileGeneration(filePath))) {
+                    return Optional.of(new VersionedFile(content, generation.get()));
+                }
+            } catch (NoSuchFileException e) {
+                return Optional.empty();
+            }
+        }
+        throw new Exception("File kept changing while being read from local storage: " + filePath);
+    }
+
+    @Override
+    public Optional<Long> getFileGeneration(String filePath) throws Exception {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(filePath), BasicFileAttributes.class);
+            // Each write moves a new file into place, so the file key changes along with the modified time
+            long generation = Objects.hash(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+            return Optional.of(generation);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String getScreenerWorkingFormSchemaPath(String screenerId){
+        return StoragePaths.screenerWorkingFormSchema(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId){
+        return StoragePaths.screenerPublishedFormSchema(screenerId);
+    }
+
+    @Override
+    public String getScreenerPublishedFormSchemaPath(String screenerId, String version){
+        return StoragePaths.screenerPublishedFormSchema(screenerId, version);
+    }
+
+    @Override
+    public String getScreenerPublishedEvaluationPlanPath(String screenerId){
+        return StoragePaths.screenerPublishedEvaluationPlan(screenerId);
+    }
+
+    @Override
+    public String getCheckDmnModelPath(String checkId){
+        return StoragePaths.checkDmnModel(checkId);
+    }
+
+    @Override
+    public String getCompiledDmnModelPath(String dmnFilePath){
+        return StoragePaths.compiledDmnModel(dmnFilePath);
+    }
+
+    @Override
+    public Map<String, Object> getFormSchemaFromStorage(String filePath) {
+        try (InputStream stream = MappedFiles.stream(resolve(filePath))) {
+            return mapper.readValue(stream, FORM_SCHEMA_TYPE);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (Exception e){
+            Log.error("Error fetching form model from local storage: ", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId, String version) throws Exception {
+        Path source = resolve(getScreenerWorkingFormSchemaPath(screenerId));
+        if (!Files.exists(source)) {
+            throw new Exception("Working form schema does not exist in local storage for screener: " + screenerId);
+        }
+        try {
+            write(getScreenerPublishedFormSchemaPath(publishedScreenerId, version), Files.readAllBytes(source));
+            Log.info("Working form schema copied to published artifact path for screener: " + screenerId);
+        } catch (IOException e) {
+            Log.error("Error updating published form schema in local storage:", e);
+            throw new Exception("Error updating published form schema in local storage");
+        }
+    }
+
+    private void write(String filePath, byte[] content) throws IOException {
+        Path target = resolve(filePath);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.write(temp, content);
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Storage paths embed user-supplied ids, so never let one resolve outside the root directory
+    private Path resolve(String filePath) {
+        Path resolved = root.resolve(filePath).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            throw new IllegalArgumentException("Storage path outside of the storage root: " + filePath);
+        }
+        return resolved;
+    }
+}
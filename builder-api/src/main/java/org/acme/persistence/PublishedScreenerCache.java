@@ -0,0 +1,105 @@
+package org.acme.persistence;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.Screener;
+import org.acme.service.EvaluationMetrics;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-through cache of published screeners and their benefits, used by the public evaluation endpoint.
+ *
+ * Entries are served from memory until the TTL expires. After that the published screener document
+ * (metadata only, no form schema) is re-read; if its lastPublishDate is unchanged the cached benefits
+ * are kept, otherwise the benefits are reloaded. Publishing on this instance invalidates the entry
+ * immediately; publishes on other instances are picked up once the TTL expires.
+ */
+@ApplicationScoped
+public class PublishedScreenerCache {
+
+    public record PublishedScreener(Screener screener, List<Benefit> benefits) {}
+
+    private record Entry(PublishedScreener value, String version, long loadedAtNanos) {}
+
+    @Inject
+    PublishedScreenerRepository publishedScreenerRepository;
+
+    @Inject
+    EvaluationMetrics metrics;
+
+    @ConfigProperty(name = "published-screener.cache.ttl", defaultValue = "PT5M")
+    Duration ttl;
+
+    @ConfigProperty(name = "published-screener.cache.max-size", defaultValue = "500")
+    int maxSize;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * Returns the published screener (without form schema) and its benefits, loading them on a miss.
+     */
+    public Optional<PublishedScreener> get(String screenerId) throws Exception {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(screenerId);
+        }
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < ttl.toNanos()) {
+            return Optional.of(cached.value());
+        }
+
+        Optional<Screener> screenerOpt = metrics.timeStage(
+            EvaluationMetrics.STAGE_FIRESTORE_LOAD,
+            () -> publishedScreenerRepository.getScreenerMetaDataOnly(screenerId)
+        );
+        if (screenerOpt.isEmpty()) {
+            invalidate(screenerId);
+            return Optional.empty();
+        }
+        Screener screener = screenerOpt.get();
+        String version = screener.getLastPublishDate();
+
+        List<Benefit> benefits;
+        if (cached != null && version != null && Objects.equals(cached.version(), version)) {
+            // Same published revision: only the TTL needed renewing
+            benefits = cached.value().benefits();
+        } else {
+            benefits = metrics.timeStage(
+                EvaluationMetrics.STAGE_FIRESTORE_LOAD,
+                () -> List.copyOf(publishedScreenerRepository.getBenefitsInScreener(screener))
+            );
+            Log.debug("Loaded published screener " + screenerId + " (version " + version + ")");
+        }
+
+        PublishedScreener value = new PublishedScreener(screener, benefits);
+        synchronized (entries) {
+            entries.put(screenerId, new Entry(value, version, System.nanoTime()));
+        }
+        return Optional.of(value);
+    }
+
+    public void invalidate(String screenerId) {
+        synchronized (entries) {
+            entries.remove(screenerId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+}
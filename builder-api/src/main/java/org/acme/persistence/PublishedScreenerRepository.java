@@ -5,15 +5,20 @@ import org.acme.model.domain.Screener;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 public interface PublishedScreenerRepository {
     public Optional<Screener> getScreener(String screenerId);
 
+    public Optional<Screener> getScreenerMetaDataOnly(String screenerId);
+
+    public CompletionStage<Optional<Screener>> getScreenerMetaDataOnlyAsync(String screenerId);
+
     public List<Benefit> getBenefitsInScreener(Screener screener) throws Exception;
 
-    public String createPublishedScreener(Screener screener) throws Exception;
+    public CompletionStage<List<Benefit>> getBenefitsInScreenerAsync(String screenerId);
 
-    public void updatePublishedScreener(String publishedScreenerId, Screener screener) throws Exception;
+    public String newPublishedScreenerId();
 
-    public void refreshPublishedScreenerbenefits(String publishedScreenerId, List<Benefit> benefits) throws Exception;
+    public void publishScreenerVersion(String publishedScreenerId, Screener screener, List<Benefit> benefits) throws Exception;
 }
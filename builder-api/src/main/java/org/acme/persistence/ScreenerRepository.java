@@ -6,6 +6,7 @@ import org.acme.model.domain.Screener;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 public interface ScreenerRepository {
     public List<Screener> getWorkingScreeners(String userId);
@@ -14,6 +15,8 @@ public interface ScreenerRepository {
 
     public Optional<Screener> getWorkingScreenerMetaDataOnly(String screenerId);
 
+    public CompletionStage<Optional<Screener>> getWorkingScreenerMetaDataOnlyAsync(String screenerId);
+
     public String saveNewWorkingScreener(Screener screener) throws Exception;
 
     public void updateWorkingScreener(Screener screener) throws Exception;
@@ -29,6 +32,8 @@ public interface ScreenerRepository {
 
     public List<Benefit> getBenefitsInScreener(Screener screener) throws Exception;
 
+    public CompletionStage<List<Benefit>> getBenefitsInScreenerAsync(String screenerId);
+
     public void deleteCustomBenefit(String screenerId, String benefitId) throws Exception;
 
     public void updateCustomBenefit(String screenerId, Benefit benefit) throws Exception;
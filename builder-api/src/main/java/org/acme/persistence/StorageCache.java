@@ -0,0 +1,423 @@
+package org.acme.persistence;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.persistence.StorageService.VersionedFile;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of files read through StorageService.
+ *
+ * Files no larger than storage.cache.memory.max-entry-size are kept in a memory tier. Larger files, and
+ * files evicted from the memory tier, go to a local disk tier and are read back through memory-mapped
+ * buffers; nothing is written to disk for a file that fits in memory. Both tiers are LRU and bounded by
+ * total bytes. Before a cached file is served its generation is checked, which costs one metadata request
+ * and no download while the file is unchanged. Writes through StorageService invalidate the path, but only
+ * on the instance that made them, so working files and check models are revalidated on every read and an
+ * edit made on one instance is seen by the next read on any other. Published files are only revalidated
+ * once storage.cache.revalidate-after has passed since their last check.
+ *
+ * A miss is loaded with StorageService.getVersionedFile, which on GCS is a generation lookup followed by
+ * the download of that generation: one request more than an uncached read.
+ */
+@ApplicationScoped
+public class StorageCache {
+
+    public record CacheStats(
+        long memoryHits, long diskHits, long misses, long revalidations, long bytesSaved, long memoryBytes, long diskBytes
+    ) {
+        public double hitRatio() {
+            long hits = memoryHits + diskHits;
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    /**
+     * Where cached files come from: the StorageService being cached.
+     */
+    public interface Origin {
+        Optional<VersionedFile> read(String filePath) throws Exception;
+
+        Optional<Long> generation(String filePath) throws Exception;
+    }
+
+    private static final class Entry {
+        final long generation;
+        final long size;
+        // Set while the entry is in the memory tier
+        byte[] content;
+        // Set while the entry is in the disk tier
+        Path file;
+        volatile long validatedAt;
+
+        Entry(long generation, long size, long validatedAt) {
+            this.generation = generation;
+            this.size = size;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    // An entry's data as of the lookup, read outside the lock
+    private record Snapshot(Entry entry, byte[] content, Path file) {}
+
+    // An entry pushed out of the memory tier, to be written to the disk tier outside the lock
+    private record Evicted(String filePath, Entry entry, byte[] content) {}
+
+    @ConfigProperty(name = "storage.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "storage.cache.memory.max-size", defaultValue = "64M")
+    MemorySize memoryMaxSize;
+
+    @ConfigProperty(name = "storage.cache.memory.max-entry-size", defaultValue = "4M")
+    MemorySize memoryMaxEntrySize;
+
+    @ConfigProperty(name = "storage.cache.disk.max-size", defaultValue = "512M")
+    MemorySize diskMaxSize;
+
+    // Defaults to the system temp directory
+    @ConfigProperty(name = "storage.cache.disk.directory")
+    Optional<String> diskDirectoryBase;
+
+    @ConfigProperty(name = "storage.cache.revalidate-after", defaultValue = "PT30S")
+    Duration revalidateAfter;
+
+    private long memoryMaxBytes;
+    private long memoryMaxEntryBytes;
+    private long diskMaxBytes;
+    private long revalidateAfterNanos;
+    private Path diskDirectory;
+
+    private final Object lock = new Object();
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Entry> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+    // Bumped on every invalidation, so a load that raced with a write is not cached
+    private long epoch;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public StorageCache() {
+    }
+
+    StorageCache(long memoryMaxBytes, long memoryMaxEntryBytes, Path diskDirectoryBase, long diskMaxBytes, Duration revalidateAfter) {
+        this.enabled = true;
+        configure(memoryMaxBytes, memoryMaxEntryBytes, diskMaxBytes, revalidateAfter);
+        if (diskDirectoryBase != null) {
+            createDiskDirectory(diskDirectoryBase);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        configure(memoryMaxSize.asLongValue(), memoryMaxEntrySize.asLongValue(), diskMaxSize.asLongValue(), revalidateAfter);
+        if (enabled && diskMaxBytes > 0) {
+            createDiskDirectory(Path.of(diskDirectoryBase.orElse(System.getProperty("java.io.tmpdir"))));
+        }
+    }
+
+    private void configure(long memoryMaxBytes, long memoryMaxEntryBytes, long diskMaxBytes, Duration revalidateAfter) {
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.memoryMaxEntryBytes = Math.min(memoryMaxEntryBytes, memoryMaxBytes);
+        this.diskMaxBytes = diskMaxBytes;
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+    }
+
+    private void createDiskDirectory(Path base) {
+        try {
+            Files.createDirectories(base);
+            diskDirectory = Files.createTempDirectory(base, "bdt-storage-cache-");
+        } catch (IOException e) {
+            Log.warn("Storage cache disk tier disabled, could not create its directory: " + e.getMessage());
+            diskDirectory = null;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        invalidateAll();
+        if (diskDirectory != null) {
+            deleteQuietly(List.of(diskDirectory));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the file's bytes, from the cache when the cached generation is current. The returned array
+     * may be shared with the cache and must not be modified.
+     */
+    public Optional<byte[]> getBytes(String filePath, Origin origin) throws Exception {
+        Optional<Snapshot> resolved = resolve(filePath, origin);
+        if (resolved.isEmpty()) {
+            return Optional.empty();
+        }
+        Snapshot snapshot = resolved.get();
+        if (snapshot.content() != null) {
+            return Optional.of(snapshot.content());
+        }
+        try {
+            return Optional.of(MappedFiles.readAllBytes(snapshot.file()));
+        } catch (IOException e) {
+            // Evicted from disk between the lookup and the read
+            return origin.read(filePath).map(VersionedFile::content);
+        }
+    }
+
+    /**
+     * Returns a stream over the file; disk tier entries are streamed from a memory-mapped buffer rather
+     * than copied onto the heap.
+     */
+    public Optional<InputStream> getStream(String filePath, Origin origin) throws Exception {
+        Optional<Snapshot> resolved = resolve(filePath, origin);
+        if (resolved.isEmpty()) {
+            return Optional.empty();
+        }
+        Snapshot snapshot = resolved.get();
+        if (snapshot.content() != null) {
+            return Optional.of(new ByteArrayInputStream(snapshot.content()));
+        }
+        try {
+            return Optional.of(MappedFiles.stream(snapshot.file()));
+        } catch (IOException e) {
+            // Evicted from disk between the lookup and the read
+            return origin.read(filePath).map(file -> new ByteArrayInputStream(file.content()));
+        }
+    }
+
+    public void invalidate(String filePath) {
+        List<Path> deleted = new ArrayList<>();
+        synchronized (lock) {
+            epoch++;
+            remove(filePath, deleted);
+        }
+        deleteQuietly(deleted);
+    }
+
+    public void invalidateAll() {
+        List<Path> deleted = new ArrayList<>();
+        synchronized (lock) {
+            epoch++;
+            for (Entry entry : disk.values()) {
+                deleted.add(entry.file);
+            }
+            memory.clear();
+            disk.clear();
+            memoryBytes = 0;
+            diskBytes = 0;
+        }
+        deleteQuietly(deleted);
+    }
+
+    public CacheStats getStats() {
+        synchronized (lock) {
+            return new CacheStats(
+                memoryHits.get(), diskHits.get(), misses.get(), revalidations.get(), bytesSaved.get(), memoryBytes, diskBytes
+            );
+        }
+    }
+
+    private Optional<Snapshot> resolve(String filePath, Origin origin) throws Exception {
+        Snapshot cached = lookup(filePath);
+        if (cached != null && isCurrent(filePath, cached.entry(), origin)) {
+            (cached.content() != null ? memoryHits : diskHits).incrementAndGet();
+            bytesSaved.addAndGet(cached.entry().size);
+            return Optional.of(cached);
+        }
+
+        misses.incrementAndGet();
+        long loadEpoch;
+        synchronized (lock) {
+            loadEpoch = epoch;
+        }
+        Optional<VersionedFile> loaded = origin.read(filePath);
+        if (loaded.isEmpty()) {
+            if (cached != null) {
+                invalidate(filePath);
+            }
+            return Optional.empty();
+        }
+        admit(filePath, loaded.get(), loadEpoch);
+        return Optional.of(new Snapshot(null, loaded.get().content(), null));
+    }
+
+    private Snapshot lookup(String filePath) {
+        synchronized (lock) {
+            Entry inMemory = memory.get(filePath);
+            // Read the disk tier too so its recency follows memory hits
+            Entry onDisk = disk.get(filePath);
+            Entry entry = inMemory != null ? inMemory : onDisk;
+            return entry != null ? new Snapshot(entry, entry.content, entry.file) : null;
+        }
+    }
+
+    private boolean isCurrent(String filePath, Entry entry, Origin origin) {
+        if (StoragePaths.isPublished(filePath) && System.nanoTime() - entry.validatedAt < revalidateAfterNanos) {
+            return true;
+        }
+        try {
+            Optional<Long> generation = origin.generation(filePath);
+            if (generation.isPresent() && generation.get() == entry.generation) {
+                entry.validatedAt = System.nanoTime();
+                revalidations.incrementAndGet();
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            // Serve the cached copy rather than fail the read while storage can't be reached
+            Log.warn("Could not revalidate cached file " + filePath + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    private void admit(String filePath, VersionedFile loaded, long loadEpoch) {
+        long size = loaded.content().length;
+        Entry entry = new Entry(loaded.generation(), size, System.nanoTime());
+        boolean fitsInMemory = size <= memoryMaxEntryBytes;
+
+        // Only files too large for the memory tier are written to disk on a miss
+        Path spilled = fitsInMemory ? null : spill(filePath, loaded.content());
+        if (!fitsInMemory && spilled == null) {
+            return;
+        }
+
+        List<Path> deleted = new ArrayList<>();
+        List<Evicted> evicted = new ArrayList<>();
+        long admitEpoch;
+        synchronized (lock) {
+            if (epoch != loadEpoch) {
+                // The file was written or invalidated while loading; the loaded copy may already be stale
+                if (spilled != null) {
+                    deleted.add(spilled);
+                }
+            } else {
+                remove(filePath, deleted);
+                if (fitsInMemory) {
+                    entry.content = loaded.content();
+                    memory.put(filePath, entry);
+                    memoryBytes += size;
+                    evictMemory(evicted);
+                } else {
+                    entry.file = spilled;
+                    disk.put(filePath, entry);
+                    diskBytes += size;
+                    evictDisk(deleted);
+                }
+            }
+            admitEpoch = epoch;
+        }
+        deleteQuietly(deleted);
+        spillEvicted(evicted, admitEpoch);
+    }
+
+    // Moves entries evicted from memory to the disk tier, unless the path changed in the meantime
+    private void spillEvicted(List<Evicted> evicted, long evictEpoch) {
+        for (Evicted candidate : evicted) {
+            Path spilled = spill(candidate.filePath(), candidate.content());
+            if (spilled == null) {
+                continue;
+            }
+            List<Path> deleted = new ArrayList<>();
+            synchronized (lock) {
+                if (epoch != evictEpoch || memory.containsKey(candidate.filePath()) || disk.containsKey(candidate.filePath())) {
+                    deleted.add(spilled);
+                } else {
+                    candidate.entry().file = spilled;
+                    disk.put(candidate.filePath(), candidate.entry());
+                    diskBytes += candidate.entry().size;
+                    evictDisk(deleted);
+                }
+            }
+            deleteQuietly(deleted);
+        }
+    }
+
+    // Writes the content to a new disk tier file, without holding the lock; null if it can't be cached on disk
+    private Path spill(String filePath, byte[] content) {
+        if (diskDirectory == null || content.length > diskMaxBytes) {
+            return null;
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile(diskDirectory, "blob-", ".bin");
+            Files.write(file, content);
+            return file;
+        } catch (IOException e) {
+            Log.warn("Could not write " + filePath + " to the storage cache disk tier: " + e.getMessage());
+            deleteQuietly(file != null ? List.of(file) : List.of());
+            return null;
+        }
+    }
+
+    // Callers hold the lock
+    private void remove(String filePath, List<Path> deleted) {
+        Entry inMemory = memory.remove(filePath);
+        if (inMemory != null) {
+            memoryBytes -= inMemory.size;
+            inMemory.content = null;
+        }
+        Entry onDisk = disk.remove(filePath);
+        if (onDisk != null) {
+            diskBytes -= onDisk.size;
+            deleted.add(onDisk.file);
+            onDisk.file = null;
+        }
+    }
+
+    private void evictMemory(List<Evicted> evicted) {
+        Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> next = eldest.next();
+            Entry entry = next.getValue();
+            eldest.remove();
+            memoryBytes -= entry.size;
+            evicted.add(new Evicted(next.getKey(), entry, entry.content));
+            entry.content = null;
+        }
+    }
+
+    private void evictDisk(List<Path> deleted) {
+        Iterator<Entry> eldest = disk.values().iterator();
+        while (diskBytes > diskMaxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            diskBytes -= entry.size;
+            deleted.add(entry.file);
+            entry.file = null;
+        }
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                Log.debug("Could not delete storage cache file " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.acme.persistence;
+
+/**
+ * File layout shared by every StorageService implementation, so files can be copied between GCS, a
+ * local directory and memory unchanged.
+ */
+final class StoragePaths {
+
+    private StoragePaths() {
+    }
+
+    static String screenerWorkingFormSchema(String screenerId) {
+        return "form/working/" + screenerId + ".json";
+    }
+
+    static String screenerPublishedFormSchema(String screenerId) {
+        return "form/published/" + screenerId + ".json";
+    }
+
+    // One file per published version, so publishing never rewrites the schema readers of the current one use
+    static String screenerPublishedFormSchema(String screenerId, String version) {
+        return "form/published/" + screenerId + "/" + version.replaceAll("[^A-Za-z0-9_.-]", "-") + ".json";
+    }
+
+    static String screenerPublishedEvaluationPlan(String screenerId) {
+        return "form/published/" + screenerId + ".plan.json";
+    }
+
+    // Published files are only replaced by publishing; working files and check models are edited in place
+    static boolean isPublished(String filePath) {
+        return filePath.startsWith("form/published/");
+    }
+
+    static String checkDmnModel(String checkId) {
+        return "check/" + checkId + ".dmn";
+    }
+
+    static String compiledDmnModel(String dmnFilePath) {
+        String basePath = dmnFilePath.endsWith(".dmn")
+            ? dmnFilePath.substring(0, dmnFilePath.length() - ".dmn".length())
+            : dmnFilePath;
+        return basePath + ".kjar";
+    }
+}
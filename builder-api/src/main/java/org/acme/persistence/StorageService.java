@@ -7,25 +7,43 @@ import java.util.Map;
 import java.util.Optional;
 
 public interface StorageService {
+    // File content and the generation it was read at; the generation changes every time the file is rewritten
+    record VersionedFile(byte[] content, long generation) {}
+
     void writeStringToStorage(String filePath, String content, String contentType) throws Exception;
 
     void writeBytesToStorage(String filePath, byte[] content, String contentType);
 
     void writeJsonToStorage(String filePath, JsonNode json);
 
+    // Streams the file rather than reading it into memory; the caller closes the stream
     Optional<InputStream> getFileInputStreamFromStorage(String filePath);
 
     Optional<String> getStringFromStorage(String filePath);
 
     Optional<byte[]> getFileBytesFromStorage(String filePath);
 
+    // Unlike the reads above, these throw on storage errors so a failure can be told apart from a missing file
+    Optional<VersionedFile> getVersionedFile(String filePath) throws Exception;
+
+    Optional<Long> getFileGeneration(String filePath) throws Exception;
+
     String getScreenerWorkingFormSchemaPath(String screenerId);
 
+    // Screeners published before form schemas were versioned
     String getScreenerPublishedFormSchemaPath(String screenerId);
 
+    String getScreenerPublishedFormSchemaPath(String screenerId, String version);
+
+    String getScreenerPublishedEvaluationPlanPath(String screenerId);
+
     String getCheckDmnModelPath(String checkId);
 
+    // Precompiled KieModule stored next to a DMN file
+    String getCompiledDmnModelPath(String dmnFilePath);
+
     Map<String, Object> getFormSchemaFromStorage(String filePath);
 
-    void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId) throws Exception;
+    // Copies the working form schema to the published screener's schema path for the given version
+    void updatePublishedFormSchemaArtifact(String screenerId, String publishedScreenerId, String version) throws Exception;
 }
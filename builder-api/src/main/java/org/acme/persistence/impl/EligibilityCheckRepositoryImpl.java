@@ -1,8 +1,5 @@
 package org.acme.persistence.impl;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
@@ -12,6 +9,7 @@ import org.acme.constants.FieldNames;
 import org.acme.model.domain.Benefit;
 import org.acme.model.domain.EligibilityCheck;
 import org.acme.persistence.EligibilityCheckRepository;
+import org.acme.persistence.DocumentCodecs;
 import org.acme.persistence.FirestoreUtils;
 import org.acme.persistence.StorageService;
 
@@ -19,33 +17,55 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @ApplicationScoped
 public class EligibilityCheckRepositoryImpl implements EligibilityCheckRepository {
 
+    // Cloud Storage reads block, so async lookups run them on virtual threads
+    private static final Executor storageReads = Executors.newVirtualThreadPerTaskExecutor();
+
     @Inject
     private StorageService storageService;
 
     public List<EligibilityCheck> getWorkingCustomChecks(String userId){
-        List<Map<String, Object>> checkMaps = FirestoreUtils.getFirestoreDocsByField(CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION, FieldNames.OWNER_ID, userId);
-        ObjectMapper mapper = new ObjectMapper();
-        return checkMaps.stream()
-                .map(checkMap -> mapper.convertValue(checkMap, EligibilityCheck.class))
+        return getWorkingCustomChecksAsync(userId).toCompletableFuture().join();
+    }
+
+    public CompletionStage<List<EligibilityCheck>> getWorkingCustomChecksAsync(String userId){
+        return FirestoreUtils.getFirestoreDocsByFieldAsync(CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION, FieldNames.OWNER_ID, userId)
+            .thenApply(checkMaps -> checkMaps.stream()
+                .map(DocumentCodecs.ELIGIBILITY_CHECK::decode)
                 .filter(check -> !check.getIsArchived())
-                .toList();
+                .toList());
     }
 
     public List<EligibilityCheck> getPublishedCustomChecks(String userId){
-        List<Map<String, Object>> checkMaps = FirestoreUtils.getFirestoreDocsByField(CollectionNames.PUBLISHED_CUSTOM_CHECK_COLLECTION, FieldNames.OWNER_ID, userId);
-        ObjectMapper mapper = new ObjectMapper();
-        return checkMaps.stream().map(checkMap -> mapper.convertValue(checkMap, EligibilityCheck.class)).toList();
+        return getPublishedCustomChecksAsync(userId).toCompletableFuture().join();
+    }
+
+    public CompletionStage<List<EligibilityCheck>> getPublishedCustomChecksAsync(String userId){
+        return FirestoreUtils.getFirestoreDocsByFieldAsync(CollectionNames.PUBLISHED_CUSTOM_CHECK_COLLECTION, FieldNames.OWNER_ID, userId)
+            .thenApply(DocumentCodecs.ELIGIBILITY_CHECK::decodeAll);
     }
 
     public List<EligibilityCheck> getLatestVersionPublishedCustomChecks(String userId) {
-        List<EligibilityCheck> publishedChecks = getPublishedCustomChecks(userId);
+        return getLatestVersionPublishedCustomChecksAsync(userId).toCompletableFuture().join();
+    }
 
-        // Get all working checks to determine which are archived
-        List<EligibilityCheck> workingChecks = getWorkingCustomChecks(userId);
+    public CompletionStage<List<EligibilityCheck>> getLatestVersionPublishedCustomChecksAsync(String userId) {
+        // The published and working checks are independent queries, so they run concurrently.
+        // Working checks determine which published checks are archived.
+        return getPublishedCustomChecksAsync(userId).thenCombine(
+            getWorkingCustomChecksAsync(userId),
+            this::latestNonArchivedVersions
+        );
+    }
+
+    private List<EligibilityCheck> latestNonArchivedVersions(List<EligibilityCheck> publishedChecks, List<EligibilityCheck> workingChecks) {
         java.util.Set<String> nonArchivedPrefixes = workingChecks.stream()
                 .map(this::getPublishedPrefix)
                 .collect(java.util.stream.Collectors.toSet());
@@ -96,8 +116,7 @@ public class EligibilityCheckRepositoryImpl implements EligibilityCheckRepositor
                 fieldValues
             )
         );
-        ObjectMapper mapper = new ObjectMapper();
-        return checkMaps.stream().map(checkMap -> mapper.convertValue(checkMap, EligibilityCheck.class)).toList();
+        return DocumentCodecs.ELIGIBILITY_CHECK.decodeAll(checkMaps);
     }
 
     public Optional<EligibilityCheck> getWorkingCustomCheck(String userId, String checkId){
@@ -117,60 +136,89 @@ public class EligibilityCheckRepositoryImpl implements EligibilityCheckRepositor
     }
 
     public Optional<EligibilityCheck> getPublishedCustomCheck(String userId, String checkId){
-        Optional<EligibilityCheck> publishedCheckOpt = getCustomCheck(userId, checkId, true);
-        if (publishedCheckOpt.isEmpty()) {
-            return Optional.empty();
+        return getPublishedCustomCheckAsync(userId, checkId).toCompletableFuture().join();
+    }
+
+    public CompletionStage<Optional<EligibilityCheck>> getPublishedCustomCheckAsync(String userId, String checkId){
+        // The working check id follows from the published id, so the published check, its DMN and the
+        // working check (needed only for its archived flag) are all fetched concurrently
+        Optional<String> workingCheckId = workingIdOfPublishedId(checkId);
+        if (workingCheckId.isEmpty()) {
+            return getCustomCheckAsync(checkId, true).thenCompose(this::excludeArchived);
         }
 
-        // Check if the corresponding working check is archived
-        EligibilityCheck publishedCheck = publishedCheckOpt.get();
-        String workingCheckId = getWorkingId(publishedCheck);
-        Optional<EligibilityCheck> workingCheckOpt = getWorkingCustomCheck(userId, workingCheckId, true);
+        CompletionStage<Optional<EligibilityCheck>> workingCheck = getCustomCheckMetadataAsync(workingCheckId.get(), false);
+        return getCustomCheckAsync(checkId, true).thenCombine(workingCheck, (publishedCheckOpt, workingCheckOpt) -> {
+            // If working check exists and is archived, return empty
+            if (workingCheckOpt.isPresent() && workingCheckOpt.get().getIsArchived()) {
+                return Optional.<EligibilityCheck>empty();
+            }
+            return publishedCheckOpt;
+        });
+    }
 
-        // If working check exists and is archived, return empty
-        if (workingCheckOpt.isPresent() && workingCheckOpt.get().getIsArchived()) {
-            return Optional.empty();
+    // Fallback for ids not in the usual published form: look the working check up from the published one
+    private CompletionStage<Optional<EligibilityCheck>> excludeArchived(Optional<EligibilityCheck> publishedCheckOpt) {
+        if (publishedCheckOpt.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
         }
-
-        return publishedCheckOpt;
+        return getCustomCheckMetadataAsync(getWorkingId(publishedCheckOpt.get()), false)
+            .thenApply(workingCheckOpt -> workingCheckOpt.isPresent() && workingCheckOpt.get().getIsArchived()
+                ? Optional.<EligibilityCheck>empty()
+                : publishedCheckOpt);
     }
 
     private Optional<EligibilityCheck> getCustomCheck(String userId, String checkId, boolean isPublished){
-        String collectionName = isPublished ? CollectionNames.PUBLISHED_CUSTOM_CHECK_COLLECTION : CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION;
+        return getCustomCheckAsync(checkId, isPublished).toCompletableFuture().join();
+    }
 
-        Optional<Map<String, Object>> checkMap = FirestoreUtils.getFirestoreDocById(collectionName, checkId);
-        if (checkMap.isEmpty()){
-            return Optional.empty();
-        }
-        Map<String, Object> data = checkMap.get();
+    // Loads the check document and its DMN model concurrently
+    private CompletionStage<Optional<EligibilityCheck>> getCustomCheckAsync(String checkId, boolean isPublished){
+        String dmnPath = storageService.getCheckDmnModelPath(checkId);
+        CompletableFuture<Optional<String>> dmnModel = CompletableFuture.supplyAsync(
+            () -> storageService.getStringFromStorage(dmnPath), storageReads
+        );
 
-        ObjectMapper mapper = new ObjectMapper();
-        EligibilityCheck check = mapper.convertValue(data, EligibilityCheck.class);
+        return getCustomCheckMetadataAsync(checkId, isPublished).thenCombine(dmnModel, (checkOpt, dmnModelOpt) -> {
+            checkOpt.ifPresent(check -> dmnModelOpt.ifPresent(check::setDmnModel));
+            return checkOpt;
+        });
+    }
 
-        String dmnPath = storageService.getCheckDmnModelPath(checkId);
-        Optional<String> dmnModel = storageService.getStringFromStorage(dmnPath);
-        dmnModel.ifPresent(check::setDmnModel);
+    private CompletionStage<Optional<EligibilityCheck>> getCustomCheckMetadataAsync(String checkId, boolean isPublished){
+        String collectionName = isPublished ? CollectionNames.PUBLISHED_CUSTOM_CHECK_COLLECTION : CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION;
+
+        return FirestoreUtils.getFirestoreDocByIdAsync(collectionName, checkId)
+            .thenApply(checkMap -> checkMap.map(DocumentCodecs.ELIGIBILITY_CHECK::decode));
+    }
 
-        return Optional.of(check);
+    // P-{owner}-{module}-{name}-{version} -> W-{owner}-{module}-{name}; versions never contain '-'
+    static Optional<String> workingIdOfPublishedId(String publishedCheckId) {
+        if (publishedCheckId == null || publishedCheckId.isEmpty()
+                || publishedCheckId.charAt(0) != CheckStatus.PUBLISHED.getCode()) {
+            return Optional.empty();
+        }
+        int versionSeparator = publishedCheckId.lastIndexOf('-');
+        if (versionSeparator <= 1) {
+            return Optional.empty();
+        }
+        return Optional.of(CheckStatus.WORKING.getCode() + publishedCheckId.substring(1, versionSeparator));
     }
 
     public String saveNewWorkingCustomCheck(EligibilityCheck check) throws Exception{
         String checkId = getWorkingId(check);
         check.setId(checkId);
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(check, Map.class);
+        Map<String, Object> data = DocumentCodecs.ELIGIBILITY_CHECK.encode(check);
         return FirestoreUtils.persistDocumentWithId(CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION, checkId, data);
     }
 
     public void updateWorkingCustomCheck(EligibilityCheck check) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(check, Map.class);
+        Map<String, Object> data = DocumentCodecs.ELIGIBILITY_CHECK.encode(check);
         FirestoreUtils.updateDocument(CollectionNames.WORKING_CUSTOM_CHECK_COLLECTION, data, check.getId());
     }
 
     public String saveNewPublishedCustomCheck(EligibilityCheck check) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(check, Map.class);
+        Map<String, Object> data = DocumentCodecs.ELIGIBILITY_CHECK.encode(check);
         data.put("id", getPublishedId(check));
         data.put("datePublished", System.currentTimeMillis());
 
@@ -179,8 +227,7 @@ public class EligibilityCheckRepositoryImpl implements EligibilityCheckRepositor
     }
 
     public void updatePublishedCustomCheck(EligibilityCheck check) throws Exception{
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(check, Map.class);
+        Map<String, Object> data = DocumentCodecs.ELIGIBILITY_CHECK.encode(check);
         FirestoreUtils.updateDocument(CollectionNames.PUBLISHED_CUSTOM_CHECK_COLLECTION, data, check.getId());
     }
 
@@ -1,19 +1,23 @@
 package org.acme.persistence.impl;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.acme.constants.CollectionNames;
 import org.acme.model.domain.Benefit;
 import org.acme.model.domain.Screener;
+import org.acme.persistence.DocumentCodecs;
 import org.acme.persistence.FirestoreUtils;
 import org.acme.persistence.PublishedScreenerRepository;
 import org.acme.persistence.StorageService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
 public class PublishedScreenerRepositoryImpl implements PublishedScreenerRepository {
@@ -27,18 +31,17 @@ public class PublishedScreenerRepositoryImpl implements PublishedScreenerReposit
 
     @Override
     public Optional<Screener> getScreener(String screenerId){
-        Optional<Map<String, Object>> dataOpt = (
-            FirestoreUtils.getFirestoreDocById(CollectionNames.PUBLISHED_SCREENER_COLLECTION, screenerId)
-        );
-        if (dataOpt.isEmpty()){
+        Optional<Screener> screenerOpt = getScreenerMetaDataOnly(screenerId);
+        if (screenerOpt.isEmpty()){
             return Optional.empty();
         }
+        Screener publishedScreener = screenerOpt.get();
 
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> data = dataOpt.get();
-        Screener publishedScreener = mapper.convertValue(data, Screener.class);
-
-        String formPath = storageService.getScreenerPublishedFormSchemaPath(screenerId);
+        // The published document names the schema of its own version; screeners published before
+        // schemas were versioned have theirs at the unversioned path
+        String formPath = publishedScreener.getFormSchemaPath() != null
+            ? publishedScreener.getFormSchemaPath()
+            : storageService.getScreenerPublishedFormSchemaPath(screenerId);
         Map<String, Object> formSchema = storageService.getFormSchemaFromStorage(formPath);
         publishedScreener.setFormSchema(formSchema);
 
@@ -46,54 +49,78 @@ public class PublishedScreenerRepositoryImpl implements PublishedScreenerReposit
     }
 
     @Override
-    public String createPublishedScreener(Screener screener) throws Exception{
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(screener, Map.class);
-
-        // Remove form schema if included on the model.
-        // We don't want to save this artifact as a field on the firestore document.
-        // It is saved separately on in cloud storage.
-        data.remove("formSchema");
-        return FirestoreUtils.persistDocument(CollectionNames.PUBLISHED_SCREENER_COLLECTION, data);
+    public Optional<Screener> getScreenerMetaDataOnly(String screenerId){
+        return getScreenerMetaDataOnlyAsync(screenerId).toCompletableFuture().join();
     }
 
     @Override
-    public void updatePublishedScreener(String publishedScreenerId, Screener screener) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(screener, Map.class);
-
-        // Remove form schema if included on the model.
-        // We don't want to save this artifact as a field on the firestore document.
-        // It is saved separately on in cloud storage.
-        data.remove("formSchema");
+    public CompletionStage<Optional<Screener>> getScreenerMetaDataOnlyAsync(String screenerId){
+        return FirestoreUtils.getFirestoreDocByIdAsync(CollectionNames.PUBLISHED_SCREENER_COLLECTION, screenerId)
+            .thenApply(dataOpt -> dataOpt.map(DocumentCodecs.SCREENER::decode));
+    }
 
-        data.put("id", publishedScreenerId);
-        FirestoreUtils.updateDocument(CollectionNames.PUBLISHED_SCREENER_COLLECTION, data, publishedScreenerId);
+    @Override
+    public String newPublishedScreenerId() {
+        return FirestoreUtils.newDocumentId(CollectionNames.PUBLISHED_SCREENER_COLLECTION);
     }
 
     public List<Benefit> getBenefitsInScreener(Screener screener) throws Exception{
-        List<Map<String, Object>> customBenefitMaps = (
-            FirestoreUtils.getAllDocsInCollection(calculateCustomBenefitCollection(screener.getId()))
-        );
+        return getBenefitsInScreenerAsync(screener.getId()).toCompletableFuture().join();
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        return customBenefitMaps.stream().map(
-            benefitMap -> mapper.convertValue(benefitMap, Benefit.class)
-        ).toList();
+    @Override
+    public CompletionStage<List<Benefit>> getBenefitsInScreenerAsync(String screenerId) {
+        return FirestoreUtils.getAllDocsInCollectionAsync(calculateCustomBenefitCollection(screenerId))
+            .thenApply(DocumentCodecs.BENEFIT::decodeAll);
     }
 
-    public void refreshPublishedScreenerbenefits(String publishedScreenerId, List<Benefit> benefits) throws Exception {
-        FirestoreUtils.deleteAllDocuments(
-            calculateCustomBenefitCollection(publishedScreenerId)
-        );
+    /**
+     * Publishes a new version of the screener. The published benefits are replaced and the screener
+     * document updated in one atomic commit, so readers switch from the old version to the new one
+     * without seeing a partly written screener. Screeners too large for one commit have their benefits
+     * bulk written first, and the screener document (which carries the version) is updated last.
+     * The screener document points at the form schema of its version, which is written beforehand
+     * by StorageService.updatePublishedFormSchemaArtifact.
+     */
+    @Override
+    public void publishScreenerVersion(String publishedScreenerId, Screener screener, List<Benefit> benefits) throws Exception {
+        String benefitCollection = calculateCustomBenefitCollection(publishedScreenerId);
 
+        // Published benefits keep their working benefit's id, so unchanged benefits are overwritten in place
+        List<FirestoreUtils.DocumentWrite> benefitWrites = new ArrayList<>();
+        Set<String> publishedBenefitIds = new HashSet<>();
         for (Benefit benefit : benefits) {
-            ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            Map<String, Object> data = mapper.convertValue(benefit, Map.class);
-            FirestoreUtils.persistDocument(
-                calculateCustomBenefitCollection(publishedScreenerId),
-                data
-            );
+            String benefitDocId = benefit.getId() != null && !benefit.getId().isBlank()
+                ? benefit.getId()
+                : FirestoreUtils.newDocumentId(benefitCollection);
+            publishedBenefitIds.add(benefitDocId);
+            benefitWrites.add(FirestoreUtils.DocumentWrite.set(benefitCollection, benefitDocId, DocumentCodecs.BENEFIT.encode(benefit)));
+        }
+        for (String existingBenefitId : FirestoreUtils.listDocumentIds(benefitCollection)) {
+            if (!publishedBenefitIds.contains(existingBenefitId)) {
+                benefitWrites.add(FirestoreUtils.DocumentWrite.delete(benefitCollection, existingBenefitId));
+            }
+        }
+
+        Map<String, Object> data = DocumentCodecs.SCREENER.encode(screener);
+        // Remove form schema if included on the model.
+        // We don't want to save this artifact as a field on the firestore document.
+        // It is saved separately on in cloud storage.
+        data.remove("formSchema");
+        data.put("id", publishedScreenerId);
+        data.put("formSchemaPath", storageService.getScreenerPublishedFormSchemaPath(publishedScreenerId, screener.getLastPublishDate()));
+        FirestoreUtils.DocumentWrite screenerWrite = FirestoreUtils.DocumentWrite.merge(
+            CollectionNames.PUBLISHED_SCREENER_COLLECTION, publishedScreenerId, data
+        );
+
+        if (benefitWrites.size() < FirestoreUtils.MAX_BATCH_WRITES) {
+            List<FirestoreUtils.DocumentWrite> writes = new ArrayList<>(benefitWrites);
+            writes.add(screenerWrite);
+            FirestoreUtils.commitAtomically(writes);
+        } else {
+            Log.info("Publishing screener " + publishedScreenerId + " with " + benefitWrites.size() + " benefit writes in bulk");
+            FirestoreUtils.bulkWrite(benefitWrites);
+            FirestoreUtils.commitAtomically(List.of(screenerWrite));
         }
     }
 }
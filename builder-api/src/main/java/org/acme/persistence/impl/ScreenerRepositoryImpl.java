@@ -1,7 +1,5 @@
 package org.acme.persistence.impl;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.acme.constants.CollectionNames;
@@ -9,7 +7,9 @@ import org.acme.constants.FieldNames;
 import org.acme.model.domain.Benefit;
 import org.acme.model.domain.BenefitDetail;
 import org.acme.model.domain.Screener;
+import org.acme.persistence.DocumentCodecs;
 import org.acme.persistence.FirestoreUtils;
+import org.acme.persistence.PublishedScreenerCache;
 import org.acme.persistence.ScreenerRepository;
 import org.acme.persistence.StorageService;
 import org.acme.persistence.PublishedScreenerRepository;
@@ -18,6 +18,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 @ApplicationScoped
 public class ScreenerRepositoryImpl implements ScreenerRepository {
@@ -28,6 +29,9 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
     @Inject
     private StorageService storageService;
 
+    @Inject
+    private PublishedScreenerCache publishedScreenerCache;
+
     public String calculateCustomBenefitCollection(String screenerId) {
         return CollectionNames.WORKING_SCREENER_COLLECTION + "/" + screenerId + "/customBenefit";
     }
@@ -40,14 +44,7 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
                 FieldNames.OWNER_ID,
                 userId);
 
-        ObjectMapper mapper = new ObjectMapper();
-        List<Screener> screeners = (
-            screenersMaps.stream().map(
-                screenerMap -> mapper.convertValue(screenerMap, Screener.class)
-            ).toList()
-        );
-
-        return screeners;
+        return DocumentCodecs.SCREENER.decodeAll(screenersMaps);
     }
 
     @Override
@@ -58,8 +55,7 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
         }
         Map<String, Object> data = dataOpt.get();
 
-        ObjectMapper mapper = new ObjectMapper();
-        Screener screener = mapper.convertValue(data, Screener.class);
+        Screener screener = DocumentCodecs.SCREENER.decode(data);
 
         String formPath = storageService.getScreenerWorkingFormSchemaPath(screenerId);
         Map<String, Object>  formSchema = storageService.getFormSchemaFromStorage(formPath);
@@ -70,28 +66,24 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
 
     @Override
     public Optional<Screener> getWorkingScreenerMetaDataOnly(String screenerId){
-        Optional<Map<String, Object>> dataOpt = FirestoreUtils.getFirestoreDocById(CollectionNames.WORKING_SCREENER_COLLECTION, screenerId);
-        if (dataOpt.isEmpty()){
-            return Optional.empty();
-        }
-        Map<String, Object> data = dataOpt.get();
-        ObjectMapper mapper = new ObjectMapper();
-        Screener screener = mapper.convertValue(data, Screener.class);
+        return getWorkingScreenerMetaDataOnlyAsync(screenerId).toCompletableFuture().join();
+    }
 
-        return Optional.of(screener);
+    @Override
+    public CompletionStage<Optional<Screener>> getWorkingScreenerMetaDataOnlyAsync(String screenerId){
+        return FirestoreUtils.getFirestoreDocByIdAsync(CollectionNames.WORKING_SCREENER_COLLECTION, screenerId)
+            .thenApply(dataOpt -> dataOpt.map(DocumentCodecs.SCREENER::decode));
     }
 
     @Override
     public String saveNewWorkingScreener(Screener screener) throws Exception{
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(screener, Map.class);
+        Map<String, Object> data = DocumentCodecs.SCREENER.encode(screener);
         return FirestoreUtils.persistDocument(CollectionNames.WORKING_SCREENER_COLLECTION, data);
     }
 
     @Override
     public void updateWorkingScreener(Screener screener) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(screener, Map.class);
+        Map<String, Object> data = DocumentCodecs.SCREENER.encode(screener);
 
         // Remove form schema if included on the model.
         // We don't want to save this artifact as a field on the firestore document.
@@ -102,8 +94,7 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
     }
 
     public void addBenefitDetailToWorkingScreener(String screenerId, BenefitDetail benefitDetail) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(benefitDetail, Map.class);
+        Map<String, Object> data = DocumentCodecs.BENEFIT_DETAIL.encode(benefitDetail);
         FirestoreUtils.addObjectToArrayField(CollectionNames.WORKING_SCREENER_COLLECTION, screenerId, FieldNames.BENEFITS, data);
     }
 
@@ -121,24 +112,21 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
         if (benefitMap.isEmpty()) {
             return Optional.empty();
         }
-        ObjectMapper mapper = new ObjectMapper();
-        return Optional.of(mapper.convertValue(benefitMap.get(), Benefit.class));
+        return Optional.of(DocumentCodecs.BENEFIT.decode(benefitMap.get()));
     }
 
     public List<Benefit> getBenefitsInScreener(Screener screener) throws Exception{
-        List<Map<String, Object>> customBenefitMaps = (
-            FirestoreUtils.getAllDocsInCollection(calculateCustomBenefitCollection(screener.getId()))
-        );
+        return getBenefitsInScreenerAsync(screener.getId()).toCompletableFuture().join();
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        return customBenefitMaps.stream().map(
-            benefitMap -> mapper.convertValue(benefitMap, Benefit.class)
-        ).toList();
+    @Override
+    public CompletionStage<List<Benefit>> getBenefitsInScreenerAsync(String screenerId) {
+        return FirestoreUtils.getAllDocsInCollectionAsync(calculateCustomBenefitCollection(screenerId))
+            .thenApply(DocumentCodecs.BENEFIT::decodeAll);
     }
 
     public void updateCustomBenefit(String screenerId, Benefit benefit) throws Exception {
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(benefit, Map.class);
+        Map<String, Object> data = DocumentCodecs.BENEFIT.encode(benefit);
         String benefitDocId = benefit.getId();
         System.out.println("Updating custom benefit: " + benefit.getId());
 
@@ -146,8 +134,7 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
     }
 
     public String saveNewCustomBenefit(String screenerId, Benefit benefit) throws Exception{
-        ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        Map<String, Object> data = mapper.convertValue(benefit, Map.class);
+        Map<String, Object> data = DocumentCodecs.BENEFIT.encode(benefit);
         String benefitDocId = benefit.getId();
         return FirestoreUtils.persistDocumentWithId(calculateCustomBenefitCollection(screenerId), benefitDocId, data);
     }
@@ -159,23 +146,28 @@ public class ScreenerRepositoryImpl implements ScreenerRepository {
     /* Publishing logic */
     @Override
     public void publishScreener(Screener screener) throws Exception {
-        if (screener.getPublishedScreenerId() == null || screener.getPublishedScreenerId().isEmpty()) {
-            String publishedScreenerId = publishedScreenerRepository.createPublishedScreener(screener);
-            screener.setPublishedScreenerId(publishedScreenerId);
-        } else {
-            publishedScreenerRepository.updatePublishedScreener(screener.getPublishedScreenerId(), screener);
+        // The publish date doubles as the published revision, so it is stamped on the published document
+        screener.setLastPublishDate(Instant.now().toString());
+
+        boolean firstPublish = screener.getPublishedScreenerId() == null || screener.getPublishedScreenerId().isEmpty();
+        if (firstPublish) {
+            // The published document itself is created by the publish commit below
+            screener.setPublishedScreenerId(publishedScreenerRepository.newPublishedScreenerId());
         }
 
-        screener.setLastPublishDate(Instant.now().toString());
         this.updateWorkingScreener(screener);
 
-        publishedScreenerRepository.refreshPublishedScreenerbenefits(
-            screener.getPublishedScreenerId(),
-            this.getBenefitsInScreener(screener)
+        // The form schema is copied to a path of its own for this version before the version is
+        // committed; readers find it through the published document, so they switch schemas with it
+        storageService.updatePublishedFormSchemaArtifact(
+            screener.getId(), screener.getPublishedScreenerId(), screener.getLastPublishDate()
         );
 
-        storageService.updatePublishedFormSchemaArtifact(
-            screener.getId(), screener.getPublishedScreenerId()
+        publishedScreenerRepository.publishScreenerVersion(
+            screener.getPublishedScreenerId(),
+            screener,
+            this.getBenefitsInScreener(screener)
         );
+        publishedScreenerCache.invalidate(screener.getPublishedScreenerId());
     }
 }
@@ -0,0 +1,90 @@
+package org.acme.service;
+
+import org.kie.api.KieServices;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Serialized KieModule of a compiled DMN, as stored next to the DMN file.
+ *
+ * The stored bytes start with a short text header recording the KIE runtime version that compiled the
+ * module and the SHA-256 hash of the DMN XML it was compiled from. An artifact is only used when both
+ * match the running KIE version and the current DMN XML; otherwise the DMN is compiled again.
+ */
+record CompiledDmnArtifact(String kieVersion, String contentHash, byte[] moduleBytes) {
+
+    private static final String FORMAT = "bdt-compiled-dmn/1";
+    private static final int HEADER_LINES = 3;
+
+    static final String KIE_VERSION = resolveKieVersion();
+
+    static CompiledDmnArtifact of(String dmnXml, byte[] moduleBytes) {
+        return new CompiledDmnArtifact(KIE_VERSION, DmnModelCache.hash(dmnXml), moduleBytes);
+    }
+
+    boolean isCurrentFor(String dmnXml) {
+        return KIE_VERSION.equals(kieVersion) && DmnModelCache.hash(dmnXml).equals(contentHash);
+    }
+
+    byte[] toBytes() {
+        byte[] header = (FORMAT + "\n" + kieVersion + "\n" + contentHash + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(header.length + moduleBytes.length);
+        out.writeBytes(header);
+        out.writeBytes(moduleBytes);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads an artifact written by toBytes, or returns empty if the bytes are not in that format.
+     */
+    static Optional<CompiledDmnArtifact> fromBytes(byte[] bytes) {
+        String[] header = new String[HEADER_LINES];
+        int start = 0;
+        for (int line = 0; line < HEADER_LINES; line++) {
+            int end = indexOf(bytes, (byte) '\n', start);
+            if (end < 0) {
+                return Optional.empty();
+            }
+            header[line] = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            start = end + 1;
+        }
+        if (!FORMAT.equals(header[0])) {
+            return Optional.empty();
+        }
+        return Optional.of(new CompiledDmnArtifact(header[1], header[2], Arrays.copyOfRange(bytes, start, bytes.length)));
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        // The header is short; give up quickly on bytes that were never an artifact
+        int limit = Math.min(bytes.length, from + 256);
+        for (int i = from; i < limit; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String resolveKieVersion() {
+        try (InputStream in = KieServices.class.getResourceAsStream("/META-INF/maven/org.kie/kie-api/pom.properties")) {
+            if (in != null) {
+                Properties properties = new Properties();
+                properties.load(in);
+                String version = properties.getProperty("version");
+                if (version != null) {
+                    return version;
+                }
+            }
+        } catch (IOException e) {
+            // Fall through to the manifest version
+        }
+        String version = KieServices.class.getPackage().getImplementationVersion();
+        return version != null ? version : "unknown";
+    }
+}
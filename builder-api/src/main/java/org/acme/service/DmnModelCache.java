@@ -0,0 +1,192 @@
+package org.acme.service;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded LRU cache of compiled DMN models.
+ *
+ * Entries are keyed by the DMN storage path (which embeds the check id) plus a SHA-256 hash of the
+ * DMN XML, so a changed DMN file never resolves to a stale compiled model even if an explicit
+ * invalidation is missed (e.g. the file was written by another instance). Models leaving the cache
+ * (evicted, replaced or invalidated) have their KieContainer disposed.
+ *
+ * Concurrent misses on the same revision (a cold start, or background precompile racing the first
+ * evaluations) wait for a single compile instead of each building and registering their own model.
+ */
+@ApplicationScoped
+public class DmnModelCache {
+
+    public record CacheStats(long hits, long misses, long evictions, int size) {}
+
+    record CacheKey(String dmnFilePath, String contentHash) {}
+
+    @FunctionalInterface
+    public interface ModelCompiler {
+        DmnModelResult compile() throws Exception;
+    }
+
+    @ConfigProperty(name = "dmn.model-cache.max-size", defaultValue = "256")
+    int maxSize;
+
+    @Inject
+    KieContainerRegistry containerRegistry;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Compiles in progress, guarded by the entries lock like the entries themselves
+    private final Map<CacheKey, CompletableFuture<DmnModelResult>> compiling = new HashMap<>();
+
+    private final Map<CacheKey, DmnModelResult> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, DmnModelResult> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                Log.debug("Evicting compiled DMN model: " + eldest.getKey().dmnFilePath());
+                release(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public DmnModelCache() {
+    }
+
+    DmnModelCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the compiled model for the given DMN, compiling it with the supplied compiler on a miss.
+     * Compilation happens outside the cache lock so slow compiles don't block hits for other checks;
+     * callers missing on a revision that is already being compiled wait for that compile and count as hits.
+     */
+    public DmnModelResult getOrCompile(String dmnFilePath, String dmnXml, ModelCompiler compiler) throws Exception {
+        CacheKey key = new CacheKey(dmnFilePath, hash(dmnXml));
+
+        CompletableFuture<DmnModelResult> pending;
+        synchronized (entries) {
+            DmnModelResult cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            pending = compiling.get(key);
+            if (pending == null) {
+                compiling.put(key, new CompletableFuture<>());
+            }
+        }
+        if (pending != null) {
+            hits.incrementAndGet();
+            return await(pending);
+        }
+
+        misses.incrementAndGet();
+        DmnModelResult compiled;
+        try {
+            compiled = compiler.compile();
+        } catch (Throwable t) {
+            CompletableFuture<DmnModelResult> failed;
+            synchronized (entries) {
+                failed = compiling.remove(key);
+            }
+            failed.completeExceptionally(t);
+            throw t;
+        }
+
+        CompletableFuture<DmnModelResult> done;
+        synchronized (entries) {
+            // Drop any older revisions of this DMN before caching the new one
+            removeIf(k -> k.dmnFilePath().equals(dmnFilePath) && !k.equals(key));
+            DmnModelResult replaced = entries.put(key, compiled);
+            if (replaced != null && replaced != compiled) {
+                release(replaced);
+            }
+            done = compiling.remove(key);
+        }
+        done.complete(compiled);
+        return compiled;
+    }
+
+    private static DmnModelResult await(CompletableFuture<DmnModelResult> pending) throws Exception {
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes every cached revision of the DMN stored at the given path.
+     */
+    public void invalidate(String dmnFilePath) {
+        synchronized (entries) {
+            if (removeIf(k -> k.dmnFilePath().equals(dmnFilePath))) {
+                Log.info("Invalidated compiled DMN model cache for: " + dmnFilePath);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            removeIf(k -> true);
+        }
+    }
+
+    // Callers hold the entries lock
+    private boolean removeIf(Predicate<CacheKey> filter) {
+        boolean removed = false;
+        Iterator<Map.Entry<CacheKey, DmnModelResult>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, DmnModelResult> entry = iterator.next();
+            if (filter.test(entry.getKey())) {
+                iterator.remove();
+                release(entry.getValue());
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private void release(DmnModelResult model) {
+        if (containerRegistry != null && model != null && model.container != null) {
+            containerRegistry.dispose(model.container);
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
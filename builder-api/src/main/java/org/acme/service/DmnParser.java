@@ -1,47 +1,146 @@
 package org.acme.service;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 
-import com.github.javaparser.utils.Log;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import io.quarkus.logging.Log;
 
-import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
+/**
+ * Reads the metadata of a DMN definition (name, namespace, input data, decisions and imports)
+ * in a single streaming pass over the XML, without compiling the model.
+ *
+ * Only the top-level elements of the definitions are inspected, so this works for any DMN version
+ * and never touches decision logic. Use the compiled model when FEEL expressions need checking.
+ */
 public class DmnParser {
+
+    public record DmnElement(String id, String name, String typeRef) {}
+
+    public record DmnImport(String name, String namespace, String locationURI) {}
+
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
     private String nameSpace;
     private String name;
+    private final List<DmnElement> inputs = new ArrayList<>();
+    private final List<DmnElement> decisions = new ArrayList<>();
+    private final List<DmnImport> imports = new ArrayList<>();
+    private String parseError;
 
     public DmnParser(String dmnXml) {
+        if (dmnXml == null) {
+            parseError = "DMN definition is empty";
+            return;
+        }
 
+        XMLStreamReader reader = null;
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new ByteArrayInputStream(dmnXml.getBytes("UTF-8")));
+            reader = xmlInputFactory.createXMLStreamReader(new StringReader(dmnXml));
 
-            // Get the document element (dmn:definitions)
-            Element root = doc.getDocumentElement();
-
-            // Extract attributes
-            String name = root.getAttribute("name");
-            String namespace = root.getAttribute("namespace");
-
-            this.name = name;
-            this.nameSpace = namespace;
-            System.out.println("Name: " + name);
-            System.out.println("Namespace: " + namespace);
+            int depth = 0;
+            // Top-level element being read (inputData or decision) and its pending attributes
+            String currentElement = null;
+            String currentId = null;
+            String currentName = null;
+            String currentTypeRef = null;
 
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String localName = reader.getLocalName();
+                    if (depth == 1) {
+                        // The document element (dmn:definitions)
+                        this.name = reader.getAttributeValue(null, "name");
+                        this.nameSpace = reader.getAttributeValue(null, "namespace");
+                    } else if (depth == 2) {
+                        switch (localName) {
+                            case "inputData", "decision" -> {
+                                currentElement = localName;
+                                currentId = reader.getAttributeValue(null, "id");
+                                currentName = reader.getAttributeValue(null, "name");
+                                currentTypeRef = null;
+                            }
+                            case "import" -> imports.add(new DmnImport(
+                                reader.getAttributeValue(null, "name"),
+                                reader.getAttributeValue(null, "namespace"),
+                                reader.getAttributeValue(null, "locationURI")
+                            ));
+                            default -> currentElement = null;
+                        }
+                    } else if (depth == 3 && currentElement != null && "variable".equals(localName)) {
+                        currentTypeRef = reader.getAttributeValue(null, "typeRef");
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 2 && currentElement != null) {
+                        DmnElement element = new DmnElement(currentId, currentName, currentTypeRef);
+                        if ("inputData".equals(currentElement)) {
+                            inputs.add(element);
+                        } else {
+                            decisions.add(element);
+                        }
+                        currentElement = null;
+                    }
+                    depth--;
+                }
+            }
         } catch (Exception e) {
-            Log.error(e);
+            Log.error("Failed to parse DMN definition", e);
+            parseError = e.getMessage();
+            name = null;
+            nameSpace = null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (Exception ignored) {
+                }
+            }
         }
     }
 
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        // DMN never needs a DTD; refusing them also rules out XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     public String getName() {
         return name;
     }
     public String getNameSpace(){
         return nameSpace;
     }
+
+    public List<DmnElement> getInputs() {
+        return List.copyOf(inputs);
+    }
+
+    public List<DmnElement> getDecisions() {
+        return List.copyOf(decisions);
+    }
+
+    public List<DmnImport> getImports() {
+        return List.copyOf(imports);
+    }
+
+    public Optional<DmnElement> getDecision(String decisionName) {
+        return decisions.stream().filter(d -> decisionName.equals(d.name())).findFirst();
+    }
+
+    /**
+     * The reason the XML could not be read, or null if it was parsed successfully.
+     */
+    public String getParseError() {
+        return parseError;
+    }
 }
@@ -18,6 +18,9 @@ public interface DmnService {
         Map<String, Object> inputs,
         Map<String, Object> parameters
     ) throws Exception;
+    public void precompileDmn(String dmnFilePath, String dmnModelName) throws Exception;
+    public void saveCompiledModel(String dmnFilePath, String dmnXml, String dmnModelName) throws Exception;
+    public void invalidateCompiledModel(String dmnFilePath);
     public JsonNode extractInputSchema(
         String dmnXml,
         Map<String, String> dependenciesMap,
@@ -0,0 +1,241 @@
+package org.acme.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.acme.enums.EvaluationResult;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.acme.persistence.StorageCache;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for screener evaluation, exposed at /q/metrics.
+ *
+ * Every stage of an evaluation (Firestore and storage reads, DMN compile, load and evaluate, library-api
+ * calls, response serialization) is timed under bdt.evaluation.stage, the whole request under
+ * bdt.evaluation tagged by screener, and each check outcome is counted under bdt.evaluation.check.results
+ * tagged by screener, check module and version, and result. Latency histograms publish the SLO buckets
+ * configured in evaluation.metrics.slo. The compiled model cache, KieContainers, storage cache and result
+ * cache are exposed under bdt.dmn.*, bdt.storage.cache.* and bdt.evaluation.result_cache.*.
+ */
+@ApplicationScoped
+public class EvaluationMetrics {
+
+    public static final String STAGE_FIRESTORE_LOAD = "firestore_load";
+    public static final String STAGE_STORAGE_LOAD = "storage_load";
+    public static final String STAGE_DMN_COMPILE = "dmn_compile";
+    public static final String STAGE_DMN_LOAD = "dmn_load";
+    public static final String STAGE_DMN_EVALUATE = "dmn_evaluate";
+    public static final String STAGE_LIBRARY_HTTP = "library_http";
+    public static final String STAGE_RESPONSE_SERIALIZE = "response_serialize";
+
+    static final String METRIC_PREFIX = "bdt.";
+    static final String EVALUATION_TIMER = "bdt.evaluation";
+    static final String STAGE_TIMER = "bdt.evaluation.stage";
+    static final String CHECK_RESULTS_COUNTER = "bdt.evaluation.check.results";
+    static final String LIBRARY_REQUEST_TIMER = "bdt.library.requests";
+    static final String LIBRARY_IN_FLIGHT_GAUGE = "bdt.library.in_flight";
+
+    // Working (unpublished) screeners are tagged together to keep the screener tag bounded
+    static final String WORKING_SCREENER = "working";
+    private static final String NONE = "none";
+
+    @FunctionalInterface
+    public interface TimedWork<T> {
+        T run() throws Exception;
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    DmnModelCache modelCache;
+
+    @Inject
+    KieContainerRegistry containerRegistry;
+
+    @Inject
+    StorageCache storageCache;
+
+    @Inject
+    EvaluationResultCache resultCache;
+
+    public EvaluationMetrics() {
+    }
+
+    EvaluationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void bindCaches() {
+        FunctionCounter.builder("bdt.dmn.model_cache.hits", modelCache, cache -> cache.getStats().hits())
+            .description("Compiled DMN model cache hits")
+            .register(registry);
+        FunctionCounter.builder("bdt.dmn.model_cache.misses", modelCache, cache -> cache.getStats().misses())
+            .description("Compiled DMN model cache misses")
+            .register(registry);
+        FunctionCounter.builder("bdt.dmn.model_cache.evictions", modelCache, cache -> cache.getStats().evictions())
+            .description("Compiled DMN models evicted from the cache")
+            .register(registry);
+        Gauge.builder("bdt.dmn.model_cache.size", modelCache, cache -> cache.getStats().size())
+            .description("Compiled DMN models held in the cache")
+            .register(registry);
+        Gauge.builder("bdt.dmn.containers.live", containerRegistry, containers -> containers.getStats().live())
+            .description("KieContainers currently registered for compiled DMN models")
+            .register(registry);
+        Gauge.builder("bdt.dmn.containers.retained", containerRegistry, containers -> containers.getStats().retainedBytes())
+            .description("Size of the KieModules behind the live KieContainers")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("bdt.dmn.containers.disposed", containerRegistry, containers -> containers.getStats().disposed())
+            .description("KieContainers disposed after their model left the cache")
+            .register(registry);
+        for (String tier : List.of("memory", "disk")) {
+            FunctionCounter.builder("bdt.storage.cache.hits", storageCache,
+                    cache -> tier.equals("memory") ? cache.getStats().memoryHits() : cache.getStats().diskHits())
+                .description("Storage reads served from the local cache")
+                .tag("tier", tier)
+                .register(registry);
+            Gauge.builder("bdt.storage.cache.size", storageCache,
+                    cache -> tier.equals("memory") ? cache.getStats().memoryBytes() : cache.getStats().diskBytes())
+                .description("Bytes held in the storage cache")
+                .tag("tier", tier)
+                .baseUnit("bytes")
+                .register(registry);
+        }
+        FunctionCounter.builder("bdt.storage.cache.misses", storageCache, cache -> cache.getStats().misses())
+            .description("Storage reads that had to download the file")
+            .register(registry);
+        FunctionCounter.builder("bdt.storage.cache.revalidations", storageCache, cache -> cache.getStats().revalidations())
+            .description("Cached files confirmed current by a generation check instead of a download")
+            .register(registry);
+        FunctionCounter.builder("bdt.storage.cache.bytes_saved", storageCache, cache -> cache.getStats().bytesSaved())
+            .description("Bytes served from the storage cache instead of downloaded")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("bdt.storage.cache.hit_ratio", storageCache, cache -> cache.getStats().hitRatio())
+            .description("Share of storage reads served from the local cache")
+            .register(registry);
+        for (String level : List.of("screener", "check")) {
+            FunctionCounter.builder("bdt.evaluation.result_cache.hits", resultCache,
+                    cache -> level.equals("screener") ? cache.getStats().hits() : cache.getStats().checkHits())
+                .description("Published evaluation results served from the result cache")
+                .tag("level", level)
+                .register(registry);
+            FunctionCounter.builder("bdt.evaluation.result_cache.misses", resultCache,
+                    cache -> level.equals("screener") ? cache.getStats().misses() : cache.getStats().checkMisses())
+                .description("Published evaluation results that had to be evaluated")
+                .tag("level", level)
+                .register(registry);
+            Gauge.builder("bdt.evaluation.result_cache.size", resultCache,
+                    cache -> level.equals("screener") ? cache.getStats().size() : cache.getStats().checkSize())
+                .description("Results held in the result cache")
+                .tag("level", level)
+                .register(registry);
+        }
+    }
+
+    /**
+     * Runs the work and records its duration under the given evaluation stage, whether or not it succeeds.
+     */
+    public <T> T timeStage(String stage, TimedWork<T> work) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return work.run();
+        } finally {
+            sample.stop(registry.timer(STAGE_TIMER, "stage", stage));
+        }
+    }
+
+    /**
+     * Runs a whole screener evaluation and records its duration, tagged by screener and outcome.
+     */
+    public <T> T timeEvaluation(String screenerId, TimedWork<T> work) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = work.run();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(registry.timer(EVALUATION_TIMER, "screener", screenerTag(screenerId), "outcome", outcome));
+        }
+    }
+
+    public void recordCheckResult(String screenerId, PlannedCheck check, EvaluationResult result) {
+        registry.counter(
+            CHECK_RESULTS_COUNTER,
+            "screener", screenerTag(screenerId),
+            "kind", check.kind().name(),
+            "module", orNone(check.checkModule()),
+            "version", orNone(check.checkVersion()),
+            "result", result.name()
+        ).increment();
+    }
+
+    /**
+     * Records one library-api HTTP call, both as the library_http stage and per library-api host.
+     */
+    public void recordLibraryRequest(String baseUrl, String outcome, long durationNanos) {
+        Duration duration = Duration.ofNanos(durationNanos);
+        registry.timer(STAGE_TIMER, "stage", STAGE_LIBRARY_HTTP).record(duration);
+        registry.timer(LIBRARY_REQUEST_TIMER, "host", baseUrl, "outcome", outcome).record(duration);
+    }
+
+    public void bindLibraryInFlight(String baseUrl, AtomicLong inFlight) {
+        Gauge.builder(LIBRARY_IN_FLIGHT_GAUGE, inFlight, AtomicLong::get)
+            .description("library-api requests currently in flight")
+            .tag("host", baseUrl)
+            .register(registry);
+    }
+
+    private static String screenerTag(String screenerId) {
+        return screenerId != null ? screenerId : WORKING_SCREENER;
+    }
+
+    private static String orNone(String value) {
+        return value != null && !value.isBlank() ? value : NONE;
+    }
+
+    /**
+     * Publishes the configured SLO buckets on every evaluation latency timer.
+     */
+    @Singleton
+    public static class SloConfiguration {
+
+        @ConfigProperty(name = "evaluation.metrics.slo", defaultValue = "PT0.01S,PT0.05S,PT0.1S,PT0.25S,PT0.5S,PT1S,PT2.5S,PT5S,PT10S")
+        List<Duration> slo;
+
+        @Produces
+        @Singleton
+        public MeterFilter evaluationSloFilter() {
+            double[] sloNanos = slo.stream().mapToDouble(Duration::toNanos).toArray();
+            return new MeterFilter() {
+                @Override
+                public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                    if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith(METRIC_PREFIX)) {
+                        return config;
+                    }
+                    return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(sloNanos)
+                        .build()
+                        .merge(config);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.acme.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.CheckConfig;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.Aggregation;
+import org.acme.model.domain.EvaluationPlan.CheckKind;
+import org.acme.model.domain.EvaluationPlan.PlannedBenefit;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.acme.model.domain.Screener;
+import org.acme.persistence.StorageService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds, stores and loads screener evaluation plans.
+ *
+ * A published screener's plan is written to storage when it is published and loaded at most once per
+ * process for each published version. Screeners published before plans existed, or whose plan has not
+ * been written yet, get a plan built from their benefits instead; it is kept in the same way, under the
+ * published screener id, even for legacy screeners that have no publish date to version it by.
+ */
+@ApplicationScoped
+public class EvaluationPlanService {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Inject
+    StorageService storageService;
+
+    @Inject
+    LibraryApiService libraryApi;
+
+    @Inject
+    DmnService dmnService;
+
+    @Inject
+    EvaluationMetrics metrics;
+
+    private final Map<String, EvaluationPlan> publishedPlans = new ConcurrentHashMap<>();
+
+    public EvaluationPlan buildPlan(String screenerId, String version, List<Benefit> benefits) {
+        List<PlannedBenefit> plannedBenefits = new ArrayList<>();
+        for (Benefit benefit : benefits) {
+            List<PlannedCheck> plannedChecks = new ArrayList<>();
+            if (benefit.getChecks() != null) {
+                for (CheckConfig checkConfig : benefit.getChecks()) {
+                    plannedChecks.add(planCheck(checkConfig));
+                }
+            }
+            plannedBenefits.add(new PlannedBenefit(benefit.getId(), benefit.getName(), Aggregation.ALL_CHECKS, plannedChecks));
+        }
+        return new EvaluationPlan(screenerId, version, plannedBenefits);
+    }
+
+    private PlannedCheck planCheck(CheckConfig checkConfig) {
+        boolean isLibraryCheck = checkConfig.getEvaluationUrl() != null && !checkConfig.getEvaluationUrl().isBlank();
+        if (isLibraryCheck) {
+            return new PlannedCheck(
+                checkConfig.getCheckId(),
+                checkConfig.getCheckName(),
+                checkConfig.getAliasName(),
+                checkConfig.getCheckModule(),
+                checkConfig.getCheckVersion(),
+                CheckKind.LIBRARY,
+                checkConfig.getEvaluationUrl(),
+                null,
+                checkConfig.getParameters(),
+                libraryApi.defaultsAsOfDate(checkConfig)
+            );
+        }
+
+        String sourceCheckId = checkConfig.getSourceCheckId() != null ? checkConfig.getSourceCheckId() : checkConfig.getCheckId();
+        return new PlannedCheck(
+            checkConfig.getCheckId(),
+            checkConfig.getCheckName(),
+            checkConfig.getAliasName(),
+            checkConfig.getCheckModule(),
+            checkConfig.getCheckVersion(),
+            CheckKind.CUSTOM,
+            null,
+            storageService.getCheckDmnModelPath(sourceCheckId),
+            checkConfig.getParameters(),
+            false
+        );
+    }
+
+    /**
+     * Stores the plan of a just-published screener next to its published form schema.
+     */
+    public void publishPlan(EvaluationPlan plan) throws Exception {
+        String planPath = storageService.getScreenerPublishedEvaluationPlanPath(plan.screenerId());
+        storageService.writeStringToStorage(planPath, mapper.writeValueAsString(plan), "application/json");
+        publishedPlans.put(plan.screenerId(), plan);
+        precompileCustomChecks(plan);
+    }
+
+    /**
+     * Returns the plan for the given published screener version, loading it from storage the first
+     * time it is requested in this process.
+     */
+    public EvaluationPlan getPublishedPlan(Screener publishedScreener, List<Benefit> benefits) {
+        String screenerId = publishedScreener.getId();
+        String version = publishedScreener.getLastPublishDate();
+
+        // A legacy document without a publish date is only republished with one, so null is a stable version
+        EvaluationPlan cached = publishedPlans.get(screenerId);
+        if (cached != null && Objects.equals(version, cached.version())) {
+            return cached;
+        }
+
+        EvaluationPlan plan = loadPlan(screenerId)
+            .filter(stored -> Objects.equals(version, stored.version()))
+            .orElseGet(() -> {
+                Log.info("No stored evaluation plan for published screener " + screenerId + " version " + version + ", building one");
+                return buildPlan(screenerId, version, benefits);
+            });
+
+        publishedPlans.put(screenerId, plan);
+        precompileCustomChecks(plan);
+        return plan;
+    }
+
+    private Optional<EvaluationPlan> loadPlan(String screenerId) {
+        try {
+            Optional<String> planJson = metrics.timeStage(
+                EvaluationMetrics.STAGE_STORAGE_LOAD,
+                () -> storageService.getStringFromStorage(storageService.getScreenerPublishedEvaluationPlanPath(screenerId))
+            );
+            if (planJson.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(mapper.readValue(planJson.get(), EvaluationPlan.class));
+        } catch (Exception e) {
+            Log.error("Failed to read evaluation plan for published screener " + screenerId, e);
+            return Optional.empty();
+        }
+    }
+
+    // Compile custom check models in the background so the first evaluation finds them cached
+    private void precompileCustomChecks(EvaluationPlan plan) {
+        List<PlannedCheck> customChecks = plan.benefits().stream()
+            .flatMap(benefit -> benefit.checks().stream())
+            .filter(check -> check.kind() == CheckKind.CUSTOM)
+            .toList();
+        if (customChecks.isEmpty()) {
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            for (PlannedCheck check : customChecks) {
+                try {
+                    dmnService.precompileDmn(check.dmnPath(), check.checkName());
+                } catch (Exception e) {
+                    Log.warn("Failed to precompile DMN for check " + check.checkId() + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package org.acme.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.acme.service.ScreenerEvaluationService.CheckEvaluation;
+import org.acme.service.ScreenerEvaluationService.Invocation;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional cache of published screener evaluation results, for the repeated submissions the public
+ * evaluate endpoint sees (form defaults, retries, back-button resubmits).
+ *
+ * Screener results are keyed by published screener version (lastPublishDate), a SHA-256 hash of the
+ * transformed situation serialized with map keys sorted, and, when a check defaults asOfDate, the date
+ * of evaluation. Single check results are kept too, keyed by the check's invocation and the situation
+ * rather than by screener, so a check shared by several screeners is evaluated once per situation.
+ *
+ * Results that include UNABLE_TO_DETERMINE are not cached, since that is also what failed library-api
+ * calls and timed out checks report. Publishing a screener clears its entries; entries of other
+ * instances' publishes stop matching because the version changes.
+ */
+@ApplicationScoped
+public class EvaluationResultCache {
+
+    public record CacheStats(long hits, long misses, long checkHits, long checkMisses, int size, int checkSize) {}
+
+    /** The submitted situation, identified once per request. */
+    record Situation(String hash, LocalDate evaluationDate) {}
+
+    private record ResultKey(String screenerId, String version, String situationHash, LocalDate evaluationDate) {}
+
+    private record CheckKey(Invocation invocation, String situationHash, LocalDate evaluationDate) {}
+
+    private record Entry<V>(V value, long storedAtNanos) {}
+
+    // Sorted keys make the hash independent of the order the form sent its fields in
+    private static final ObjectMapper canonicalMapper = JsonMapper.builder()
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    @ConfigProperty(name = "evaluation.result-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "evaluation.result-cache.ttl", defaultValue = "PT10M")
+    Duration ttl;
+
+    @ConfigProperty(name = "evaluation.result-cache.max-size", defaultValue = "1000")
+    int maxSize;
+
+    @ConfigProperty(name = "evaluation.result-cache.check.max-size", defaultValue = "10000")
+    int checkMaxSize;
+
+    @ConfigProperty(name = "evaluation.result-cache.excluded-screeners")
+    Optional<List<String>> excludedScreenersConfig;
+
+    private Set<String> excludedScreeners = Set.of();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong checkHits = new AtomicLong();
+    private final AtomicLong checkMisses = new AtomicLong();
+
+    private final Map<ResultKey, Entry<Map<String, Object>>> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ResultKey, Entry<Map<String, Object>>> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private final Map<CheckKey, Entry<CheckEvaluation>> checkResults = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CheckKey, Entry<CheckEvaluation>> eldest) {
+            return size() > checkMaxSize;
+        }
+    };
+
+    public EvaluationResultCache() {
+    }
+
+    EvaluationResultCache(int maxSize, int checkMaxSize, Duration ttl, Set<String> excludedScreeners) {
+        this.enabled = true;
+        this.maxSize = maxSize;
+        this.checkMaxSize = checkMaxSize;
+        this.ttl = ttl;
+        this.excludedScreeners = Set.copyOf(excludedScreeners);
+    }
+
+    @PostConstruct
+    void init() {
+        excludedScreeners = Set.copyOf(excludedScreenersConfig.orElse(List.of()));
+    }
+
+    /**
+     * Whether evaluations of the given published screener are served from the cache.
+     */
+    public boolean appliesTo(String screenerId) {
+        return enabled && screenerId != null && !excludedScreeners.contains(screenerId);
+    }
+
+    Situation situationOf(EvaluationPlan plan, Map<String, Object> formData) throws Exception {
+        boolean defaultsAsOfDate = plan.benefits().stream()
+            .flatMap(benefit -> benefit.checks().stream())
+            .anyMatch(PlannedCheck::defaultAsOfDate);
+        return new Situation(hash(formData), defaultsAsOfDate ? LocalDate.now() : null);
+    }
+
+    Optional<Map<String, Object>> getResults(EvaluationPlan plan, Situation situation) {
+        Optional<Map<String, Object>> cached = get(results, resultKey(plan, situation));
+        (cached.isPresent() ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    void putResults(EvaluationPlan plan, Situation situation, Map<String, Object> screenerResults) {
+        put(results, resultKey(plan, situation), screenerResults);
+    }
+
+    Optional<CheckEvaluation> getCheck(PlannedCheck check, Situation situation) {
+        Optional<CheckEvaluation> cached = get(checkResults, checkKey(check, situation));
+        (cached.isPresent() ? checkHits : checkMisses).incrementAndGet();
+        return cached;
+    }
+
+    void putCheck(PlannedCheck check, Situation situation, CheckEvaluation evaluation) {
+        put(checkResults, checkKey(check, situation), evaluation);
+    }
+
+    /**
+     * Drops the cached results of a published screener, e.g. when a new version is published.
+     */
+    public void invalidateScreener(String screenerId) {
+        synchronized (results) {
+            results.keySet().removeIf(key -> key.screenerId().equals(screenerId));
+        }
+    }
+
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+        synchronized (checkResults) {
+            checkResults.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (results) {
+            size = results.size();
+        }
+        int checkSize;
+        synchronized (checkResults) {
+            checkSize = checkResults.size();
+        }
+        return new CacheStats(hits.get(), misses.get(), checkHits.get(), checkMisses.get(), size, checkSize);
+    }
+
+    private static ResultKey resultKey(EvaluationPlan plan, Situation situation) {
+        return new ResultKey(plan.screenerId(), plan.version(), situation.hash(), situation.evaluationDate());
+    }
+
+    private static CheckKey checkKey(PlannedCheck check, Situation situation) {
+        return new CheckKey(
+            Invocation.of(check),
+            situation.hash(),
+            check.defaultAsOfDate() ? situation.evaluationDate() : null
+        );
+    }
+
+    private <K, V> Optional<V> get(Map<K, Entry<V>> entries, K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (System.nanoTime() - entry.storedAtNanos() >= ttl.toNanos()) {
+                entries.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(entry.value());
+        }
+    }
+
+    // Keeps the first stored value so a live entry's TTL isn't extended by a concurrent evaluation
+    private <K, V> void put(Map<K, Entry<V>> entries, K key, V value) {
+        synchronized (entries) {
+            Entry<V> existing = entries.get(key);
+            if (existing == null || System.nanoTime() - existing.storedAtNanos() >= ttl.toNanos()) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    static String hash(Map<String, Object> formData) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            canonicalMapper.writeValue(out, formData);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
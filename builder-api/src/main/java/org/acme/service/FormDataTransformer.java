@@ -1,6 +1,7 @@
 package org.acme.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,20 +23,85 @@ public class FormDataTransformer {
      * 1. People transformation: converts people object to array with id fields
      * 2. Enrollments transformation: extracts enrollments from people objects into flat array
      *
+     * Both transformations are applied in a single pass over the people, and the result is an
+     * unmodifiable view (including the people, enrollments and "custom" sub-maps) that every check
+     * evaluated for the request can share without copying. Values nested below those levels are
+     * the caller's originals and must not be modified.
+     *
      * @param formData The form data from the user
-     * @return A new Map with all transformations applied
+     * @return An unmodifiable Map with all transformations applied
      */
+    @SuppressWarnings("unchecked")
     public static Map<String, Object> transformFormData(Map<String, Object> formData) {
         if (formData == null) {
-            return new HashMap<>();
+            return Map.of();
         }
 
-        // Apply each transformation in sequence
         Map<String, Object> result = new HashMap<>(formData);
-        result = transformPeopleData(result);
-        result = transformEnrollmentsData(result);
+        Object peopleValue = formData.get("people");
+        List<Map<String, Object>> enrollmentsList = new ArrayList<>();
 
-        return result;
+        if (peopleValue instanceof Map) {
+            Map<String, Object> peopleObject = (Map<String, Object>) peopleValue;
+            List<Object> peopleArray = new ArrayList<>(peopleObject.size());
+            for (Map.Entry<String, Object> entry : peopleObject.entrySet()) {
+                Map<String, Object> personData = entry.getValue() instanceof Map
+                    ? (Map<String, Object>) entry.getValue()
+                    : Map.of();
+                peopleArray.add(toPerson(entry.getKey(), personData, enrollmentsList));
+            }
+            result.put("people", Collections.unmodifiableList(peopleArray));
+        } else if (peopleValue instanceof List) {
+            List<Object> peopleArray = new ArrayList<>(((List<?>) peopleValue).size());
+            for (Object person : (List<?>) peopleValue) {
+                if (person instanceof Map) {
+                    Map<String, Object> personData = (Map<String, Object>) person;
+                    peopleArray.add(toPerson((String) personData.get("id"), personData, enrollmentsList));
+                } else {
+                    peopleArray.add(person);
+                }
+            }
+            result.put("people", Collections.unmodifiableList(peopleArray));
+        }
+
+        // Only add enrollments if we extracted any
+        if (!enrollmentsList.isEmpty()) {
+            result.put("enrollments", Collections.unmodifiableList(enrollmentsList));
+        }
+
+        // Custom check inputs are handed to every custom check's DMN evaluation as-is
+        if (result.get("custom") instanceof Map) {
+            result.put("custom", Collections.unmodifiableMap((Map<String, Object>) result.get("custom")));
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    // Copies one person with its id set and its enrollments moved into the flat enrollments list
+    private static Map<String, Object> toPerson(
+        String personId,
+        Map<String, Object> personData,
+        List<Map<String, Object>> enrollmentsList
+    ) {
+        Map<String, Object> person = new HashMap<>(personData);
+        if (personId != null) {
+            person.put("id", personId);
+        }
+
+        Object personEnrollments = person.get("enrollments");
+        if (personEnrollments instanceof List) {
+            // DMN doesn't expect enrollments on the person object
+            person.remove("enrollments");
+            for (Object enrollment : (List<?>) personEnrollments) {
+                if (enrollment instanceof String) {
+                    Map<String, Object> enrollmentEntry = new HashMap<>();
+                    enrollmentEntry.put("personId", personId);
+                    enrollmentEntry.put("benefit", enrollment);
+                    enrollmentsList.add(Collections.unmodifiableMap(enrollmentEntry));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(person);
     }
 
     /**
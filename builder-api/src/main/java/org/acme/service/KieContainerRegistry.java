@@ -0,0 +1,132 @@
+package org.acme.service;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.KieRepository;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.io.Resource;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieRuntimeFactory;
+import org.kie.dmn.api.core.DMNRuntime;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates and disposes the KieContainers behind compiled DMN models.
+ *
+ * Each compiled model gets one container, registered from its KieModule bytes and kept for as long as
+ * DmnModelCache holds the model. Evaluation uses a DMNRuntime bound to the container's KieBase rather
+ * than a KieSession, so no sessions accumulate per container. When the cache evicts or replaces a model
+ * its container is disposed and its module removed from the global KieRepository, so neither outlives
+ * the cache entry.
+ *
+ * Modules are compiled with a ReleaseId derived from the DMN path and content hash (see
+ * KieDmnService.releaseIdFor), so the module a container binds to is always the one registered for
+ * that DMN, even while other checks register concurrently. KieBuilder.buildAll also puts every module it
+ * builds in the KieRepository; KieDmnService removes it again through removeBuiltModule once it has the
+ * module's bytes, so compiles (editor validation, save and publish) leave nothing behind.
+ */
+@ApplicationScoped
+public class KieContainerRegistry {
+
+    public record RegistryStats(long live, long retainedBytes, long created, long disposed) {}
+
+    public static final class ManagedContainer {
+        private final ReleaseId releaseId;
+        private final KieContainer container;
+        private final DMNRuntime runtime;
+        private final long moduleSize;
+        private boolean disposed;
+
+        ManagedContainer(ReleaseId releaseId, KieContainer container, DMNRuntime runtime, long moduleSize) {
+            this.releaseId = releaseId;
+            this.container = container;
+            this.runtime = runtime;
+            this.moduleSize = moduleSize;
+        }
+
+        public DMNRuntime runtime() {
+            return runtime;
+        }
+
+        public ReleaseId releaseId() {
+            return releaseId;
+        }
+    }
+
+    // A module must not be removed between its registration and the creation of its container. The
+    // KieBase is built outside the lock, so only the repository bookkeeping is serialized.
+    private static final Object REPOSITORY_LOCK = new Object();
+
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong disposed = new AtomicLong();
+
+    /**
+     * Registers the KieModule and creates a container for it.
+     */
+    public ManagedContainer register(byte[] moduleBytes) {
+        KieServices kieServices = KieServices.Factory.get();
+        Resource jarResource = kieServices.getResources().newByteArrayResource(moduleBytes);
+        ReleaseId releaseId;
+        KieContainer kieContainer;
+        synchronized (REPOSITORY_LOCK) {
+            KieModule kieModule = kieServices.getRepository().addKieModule(jarResource);
+            releaseId = kieModule.getReleaseId();
+            kieContainer = kieServices.newKieContainer(releaseId);
+        }
+        DMNRuntime dmnRuntime;
+        try {
+            dmnRuntime = KieRuntimeFactory.of(kieContainer.getKieBase()).get(DMNRuntime.class);
+        } catch (RuntimeException e) {
+            release(kieServices.getRepository(), releaseId, kieContainer);
+            throw e;
+        }
+
+        live.incrementAndGet();
+        retainedBytes.addAndGet(moduleBytes.length);
+        created.incrementAndGet();
+        return new ManagedContainer(releaseId, kieContainer, dmnRuntime, moduleBytes.length);
+    }
+
+    /**
+     * Disposes the container and removes its module from the KieRepository. Disposing only releases the
+     * container's registrations; a DMNRuntime already handed out keeps its KieBase, so evaluations in
+     * flight finish normally.
+     */
+    public void dispose(ManagedContainer managed) {
+        synchronized (managed) {
+            if (managed.disposed) {
+                return;
+            }
+            managed.disposed = true;
+        }
+        release(KieServices.Factory.get().getRepository(), managed.releaseId, managed.container);
+        live.decrementAndGet();
+        retainedBytes.addAndGet(-managed.moduleSize);
+        disposed.incrementAndGet();
+        Log.debug("Disposed KieContainer for " + managed.releaseId);
+    }
+
+    /**
+     * Removes a module that KieBuilder.buildAll added to the KieRepository. Containers are only created
+     * through register, which adds the module again from its bytes.
+     */
+    public void removeBuiltModule(ReleaseId releaseId) {
+        synchronized (REPOSITORY_LOCK) {
+            KieServices.Factory.get().getRepository().removeKieModule(releaseId);
+        }
+    }
+
+    private void release(KieRepository repository, ReleaseId releaseId, KieContainer container) {
+        container.dispose();
+        repository.removeKieModule(releaseId);
+    }
+
+    public RegistryStats getStats() {
+        return new RegistryStats(live.get(), retainedBytes.get(), created.get(), disposed.get());
+    }
+}
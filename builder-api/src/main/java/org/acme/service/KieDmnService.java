@@ -7,12 +7,7 @@ import org.acme.enums.EvaluationResult;
 import org.acme.persistence.StorageService;
 import org.kie.api.KieServices;
 import org.kie.api.builder.*;
-import org.kie.api.io.Resource;
-import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
 import org.kie.dmn.api.core.*;
-import org.kie.dmn.api.core.ast.DecisionNode;
-import org.kie.dmn.api.core.ast.InputDataNode;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -36,71 +31,111 @@ class DmnCompilationResult {
 class DmnModelResult {
     public DMNModel model;
     public DMNRuntime runtime;
+    public KieContainerRegistry.ManagedContainer container;
 
     public DmnModelResult(DMNModel model, DMNRuntime runtime) {
+        this(model, runtime, null);
+    }
+
+    public DmnModelResult(DMNModel model, DMNRuntime runtime, KieContainerRegistry.ManagedContainer container) {
         this.model = model;
         this.runtime = runtime;
+        this.container = container;
     }
 }
 
 @ApplicationScoped
 public class KieDmnService implements DmnService {
+    private static final int VALIDATION_CACHE_SIZE = 64;
+
     @Inject
-    private StorageService storageService;
+    StorageService storageService;
 
-    private KieSession initializeKieSession(byte[] moduleBytes) throws IOException {
-        KieServices kieServices = KieServices.Factory.get();
-        Resource jarResource = kieServices.getResources().newByteArrayResource(moduleBytes);
-        KieModule kieModule = kieServices.getRepository().addKieModule(jarResource);
+    @Inject
+    DmnModelCache modelCache;
 
-        ReleaseId releaseId = kieModule.getReleaseId();
-        KieContainer kieContainer = kieServices.newKieContainer(releaseId);
-        return kieContainer.newKieSession();
-    }
+    @Inject
+    EvaluationMetrics metrics;
 
-    private DmnModelResult compileAndGetDmnModel(String dmnXml, Map<String, String> dependenciesMap, String modelId) throws Exception {
-        DmnCompilationResult compilationResult = compileDmnModel(dmnXml, dependenciesMap, modelId);
+    @Inject
+    KieContainerRegistry containerRegistry;
+
+    // Compilation errors of recently validated DMN definitions, keyed by content hash
+    private final Map<String, List<String>> validationResults = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > VALIDATION_CACHE_SIZE;
+        }
+    };
+
+    // Package-private so KieDmnServiceBenchmark can measure compilation on its own
+    byte[] compileToKieModule(String dmnFilePath, String dmnXml, String modelId) {
+        ReleaseId releaseId = releaseIdFor(dmnFilePath, DmnModelCache.hash(dmnXml));
+        DmnCompilationResult compilationResult = compileDmnModel(dmnXml, new HashMap<String, String>(), modelId, releaseId);
         if (!compilationResult.errors.isEmpty()) {
             throw new IllegalStateException("DMN compilation failed: " + String.join(", ", compilationResult.errors));
         }
+        return compilationResult.dmnBytes;
+    }
 
-        KieSession kieSession = initializeKieSession(compilationResult.dmnBytes);
-        DMNRuntime dmnRuntime = kieSession.getKieRuntime(DMNRuntime.class);
+    // The container stays registered until DmnModelCache evicts or replaces the model
+    private DmnModelResult loadDmnModel(byte[] moduleBytes) throws Exception {
+        KieContainerRegistry.ManagedContainer container = containerRegistry.register(moduleBytes);
+        DMNRuntime dmnRuntime = container.runtime();
 
         List<DMNModel> dmnModels = dmnRuntime.getModels();
         if (dmnModels.size() != 1) {
+            containerRegistry.dispose(container);
             throw new RuntimeException("Expected exactly one DMN model, found: " + dmnModels.size());
         }
 
-        return new DmnModelResult(dmnModels.get(0), dmnRuntime);
+        return new DmnModelResult(dmnModels.get(0), dmnRuntime, container);
     }
 
-    // Validates that the DMN XML can compile and contains the required decision.
+    // Validates that the DMN XML contains the required decision and can compile.
     // Returns a list of error messages if any issues are found.
     public List<String> validateDmnXml (
         String dmnXml, Map<String, String> dependenciesMap, String modelId, String requiredBooleanDecisionName
     ) throws Exception {
-        DmnCompilationResult compilationResult = compileDmnModel(dmnXml, dependenciesMap, modelId);
-        if (!compilationResult.errors.isEmpty()) {
-            return compilationResult.errors;
+        // Structural checks only need the DMN metadata, so they fail fast without compiling
+        List<String> metadataErrors = validateDmnMetadata(new DmnParser(dmnXml), requiredBooleanDecisionName);
+        if (!metadataErrors.isEmpty()) {
+            return metadataErrors;
+        }
+
+        // Compiling surfaces FEEL and type errors. The editor re-validates unchanged DMN often,
+        // so compilation outcomes are remembered by content hash.
+        boolean cacheable = dependenciesMap.isEmpty();
+        String contentHash = DmnModelCache.hash(dmnXml);
+        if (cacheable) {
+            synchronized (validationResults) {
+                List<String> cached = validationResults.get(contentHash);
+                if (cached != null) {
+                    return new ArrayList<String>(cached);
+                }
+            }
         }
 
-        KieSession kieSession = initializeKieSession(compilationResult.dmnBytes);
-        DMNRuntime dmnRuntime = kieSession.getKieRuntime(DMNRuntime.class);
+        ReleaseId releaseId = releaseIdFor("validation/" + modelId, validationHash(contentHash, dependenciesMap));
+        DmnCompilationResult compilationResult = compileDmnModel(dmnXml, dependenciesMap, modelId, releaseId);
+        List<String> errors = compilationResult.errors;
+        if (cacheable) {
+            synchronized (validationResults) {
+                validationResults.put(contentHash, List.copyOf(errors));
+            }
+        }
+        return new ArrayList<String>(errors);
+    }
 
-        List<DMNModel> dmnModels = dmnRuntime.getModels();
-        if (dmnModels.size() != 1) {
-            return List.of("Expected exactly one DMN model, found: " + dmnModels.size());
+    private List<String> validateDmnMetadata(DmnParser metadata, String requiredBooleanDecisionName) {
+        if (metadata.getParseError() != null) {
+            return List.of("DMN definition is not valid XML: " + metadata.getParseError());
         }
 
-        DMNModel dmnModel = dmnModels.get(0);
-        DecisionNode requiredBooleanDecision = dmnModel.getDecisions().stream()
-            .filter(d -> d.getName().equals(requiredBooleanDecisionName))
-            .findFirst()
-            .orElse(null);
-        if (requiredBooleanDecision == null) {
-            List<String> decisionNames = dmnModel.getDecisions().stream()
-                .map(DecisionNode::getName)
+        Optional<DmnParser.DmnElement> requiredBooleanDecision = metadata.getDecision(requiredBooleanDecisionName);
+        if (requiredBooleanDecision.isEmpty()) {
+            List<String> decisionNames = metadata.getDecisions().stream()
+                .map(DmnParser.DmnElement::name)
                 .toList();
             return List.of(
                 "Required Decision '" + requiredBooleanDecisionName + "' not found in DMN definition. " +
@@ -108,21 +143,46 @@ public class KieDmnService implements DmnService {
             );
         }
 
-        if (requiredBooleanDecision.getResultType().getName() != "boolean") {
+        if (!isBooleanTypeRef(requiredBooleanDecision.get().typeRef())) {
             return List.of("The Result DataType of Decision '" + requiredBooleanDecisionName + "' must be of type 'boolean'.");
         }
         return new ArrayList<String>();
     }
 
-    private DmnCompilationResult compileDmnModel(String dmnXml, Map<String, String> dependenciesMap, String modelId) {
-        Log.info("Compiling and saving DMN model: " + modelId);
+    // typeRef may be written with a FEEL namespace prefix, e.g. "feel:boolean"
+    private boolean isBooleanTypeRef(String typeRef) {
+        return typeRef != null && (typeRef.equals("boolean") || typeRef.endsWith(":boolean"));
+    }
+
+    /**
+     * The ReleaseId of the KieModule compiled from the DMN at the given path with the given content hash.
+     *
+     * Building and registering a module puts it in the global KieRepository under its ReleaseId, and
+     * checks compile concurrently (request fan-out, background precompile). Giving every (path, content)
+     * its own ReleaseId means a container can only ever bind the module compiled from that DMN.
+     */
+    static ReleaseId releaseIdFor(String dmnFilePath, String contentHash) {
+        String artifactId = dmnFilePath.replaceAll("[^A-Za-z0-9_.-]", "_");
+        return KieServices.Factory.get().newReleaseId("user-model", artifactId, "1.0.0-" + contentHash.substring(0, 16));
+    }
+
+    // Validation compiles the DMN together with its imports, so the module identity covers both
+    private static String validationHash(String contentHash, Map<String, String> dependenciesMap) {
+        if (dependenciesMap.isEmpty()) {
+            return contentHash;
+        }
+        StringBuilder content = new StringBuilder(contentHash);
+        new TreeMap<>(dependenciesMap).forEach((path, xml) -> content.append('\n').append(path).append('\n').append(xml));
+        return DmnModelCache.hash(content.toString());
+    }
+
+    private DmnCompilationResult compileDmnModel(String dmnXml, Map<String, String> dependenciesMap, String modelId,
+                                                 ReleaseId releaseId) {
+        Log.info("Compiling and saving DMN model: " + modelId + " (" + releaseId + ")");
 
         KieServices kieServices = KieServices.Factory.get();
         // 1. Compile the DMN XML into a KieBase
         KieFileSystem kfs = kieServices.newKieFileSystem();
-        // Use a unique ReleaseId for each compilation if you plan to update models
-        // For production, consider versioning the ReleaseId carefully.
-        ReleaseId releaseId = kieServices.newReleaseId("user-model", modelId, "1.0.0");
         kfs.write("src/main/resources/model.dmn", dmnXml);
 
         String kmoduleXml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
@@ -148,19 +208,25 @@ public class KieDmnService implements DmnService {
         kfs.generateAndWritePomXML(releaseId);
 
         KieBuilder kieBuilder = kieServices.newKieBuilder(kfs);
-        kieBuilder.buildAll();
-        Results results = kieBuilder.getResults();
+        byte[] kieModuleBytes;
+        try {
+            kieBuilder.buildAll();
+            Results results = kieBuilder.getResults();
+
+            if (results.hasMessages(Message.Level.ERROR)) {
+                return new DmnCompilationResult(
+                    null,
+                    results.getMessages(Message.Level.ERROR).stream().map(Message::getText).toList()
+                );
+            }
 
-        if (results.hasMessages(Message.Level.ERROR)) {
-            return new DmnCompilationResult(
-                null,
-                results.getMessages(Message.Level.ERROR).stream().map(Message::getText).toList()
-            );
+            InternalKieModule kieModule = (InternalKieModule) kieBuilder.getKieModule();
+            kieModuleBytes = kieModule.getBytes();
+        } finally {
+            // buildAll leaves the module in the global KieRepository; only registered containers may keep one there
+            containerRegistry.removeBuiltModule(releaseId);
         }
 
-        InternalKieModule kieModule = (InternalKieModule) kieBuilder.getKieModule();
-        byte[] kieModuleBytes = kieModule.getBytes();
-
         Log.info("Serialized kieModule for model " + modelId);
         return new DmnCompilationResult(kieModuleBytes, new ArrayList<String>());
     }
@@ -171,31 +237,22 @@ public class KieDmnService implements DmnService {
         Map<String, Object> inputs,
         Map<String, Object> parameters
     ) throws Exception {
-        Log.info(inputs);
-        Log.info(parameters);
-
-        Log.info("Evaluating Simple DMN: " + dmnFilePath + " Model: " + dmnModelName);
-
-        Optional<String> dmnXmlOpt = storageService.getStringFromStorage(dmnFilePath);
-        if (dmnXmlOpt.isEmpty()) {
-            throw new RuntimeException("DMN file not found: " + dmnFilePath);
-        }
-        String dmnXml = dmnXmlOpt.get();
+        Log.debug("Evaluating Simple DMN: " + dmnFilePath + " Model: " + dmnModelName);
 
-        HashMap<String, String> dmnDependenciesMap = new HashMap<String, String>();
-        DmnModelResult modelResult = compileAndGetDmnModel(dmnXml, dmnDependenciesMap, dmnModelName);
+        DmnModelResult modelResult = getCompiledModel(dmnFilePath, dmnModelName);
         DMNModel dmnModel = modelResult.model;
         DMNRuntime dmnRuntime = modelResult.runtime;
 
-        Log.info("DMN Model loaded: " + dmnModel.getName() + " Namespace: " + dmnModel.getNamespace());
-
         DMNContext context = dmnRuntime.newContext();
 
         for (Map.Entry<String, Object> input : inputs.entrySet()) {
             context.set(input.getKey(), input.getValue());
         }
         context.set("parameters", parameters);
-        DMNResult dmnResult = dmnRuntime.evaluateAll(dmnModel, context);
+        DMNResult dmnResult = metrics.timeStage(
+            EvaluationMetrics.STAGE_DMN_EVALUATE,
+            () -> dmnRuntime.evaluateAll(dmnModel, context)
+        );
 
         // Collect and interpret results
         List<DMNDecisionResult> decisionResults = dmnResult.getDecisionResults().stream()
@@ -223,6 +280,71 @@ public class KieDmnService implements DmnService {
         throw new RuntimeException("Unexpected decision result type: " + result.getClass().getName());
     }
 
+    public void precompileDmn(String dmnFilePath, String dmnModelName) throws Exception {
+        getCompiledModel(dmnFilePath, dmnModelName);
+    }
+
+    public void saveCompiledModel(String dmnFilePath, String dmnXml, String dmnModelName) throws Exception {
+        byte[] moduleBytes = compileToKieModule(dmnFilePath, dmnXml, dmnModelName);
+        writeCompiledModel(dmnFilePath, CompiledDmnArtifact.of(dmnXml, moduleBytes));
+    }
+
+    private DmnModelResult getCompiledModel(String dmnFilePath, String dmnModelName) throws Exception {
+        Optional<String> dmnXmlOpt = metrics.timeStage(
+            EvaluationMetrics.STAGE_STORAGE_LOAD,
+            () -> storageService.getStringFromStorage(dmnFilePath)
+        );
+        if (dmnXmlOpt.isEmpty()) {
+            throw new RuntimeException("DMN file not found: " + dmnFilePath);
+        }
+        String dmnXml = dmnXmlOpt.get();
+
+        return modelCache.getOrCompile(
+            dmnFilePath,
+            dmnXml,
+            () -> loadOrCompileModel(dmnFilePath, dmnXml, dmnModelName)
+        );
+    }
+
+    // Uses the KieModule stored at save/publish time when it was built from this exact DMN by this KIE
+    // version, so the KieBuilder build is skipped; otherwise compiles and stores a fresh one.
+    private DmnModelResult loadOrCompileModel(String dmnFilePath, String dmnXml, String dmnModelName) throws Exception {
+        String compiledModelPath = storageService.getCompiledDmnModelPath(dmnFilePath);
+        Optional<CompiledDmnArtifact> artifact = metrics.timeStage(
+            EvaluationMetrics.STAGE_STORAGE_LOAD,
+            () -> storageService.getFileBytesFromStorage(compiledModelPath)
+        ).flatMap(CompiledDmnArtifact::fromBytes);
+
+        if (artifact.isPresent() && artifact.get().isCurrentFor(dmnXml)) {
+            try {
+                return metrics.timeStage(EvaluationMetrics.STAGE_DMN_LOAD, () -> loadDmnModel(artifact.get().moduleBytes()));
+            } catch (Exception e) {
+                Log.warn("Failed to load compiled DMN model " + compiledModelPath + ", recompiling: " + e.getMessage());
+            }
+        } else {
+            Log.debug("No current compiled DMN model at " + compiledModelPath + ", compiling");
+        }
+
+        byte[] moduleBytes = metrics.timeStage(
+            EvaluationMetrics.STAGE_DMN_COMPILE,
+            () -> compileToKieModule(dmnFilePath, dmnXml, dmnModelName)
+        );
+        // Store it for other instances without holding up this evaluation
+        CompiledDmnArtifact compiled = CompiledDmnArtifact.of(dmnXml, moduleBytes);
+        Thread.startVirtualThread(() -> writeCompiledModel(dmnFilePath, compiled));
+        return metrics.timeStage(EvaluationMetrics.STAGE_DMN_LOAD, () -> loadDmnModel(moduleBytes));
+    }
+
+    private void writeCompiledModel(String dmnFilePath, CompiledDmnArtifact artifact) {
+        String compiledModelPath = storageService.getCompiledDmnModelPath(dmnFilePath);
+        storageService.writeBytesToStorage(compiledModelPath, artifact.toBytes(), "application/octet-stream");
+        Log.debug("Stored compiled DMN model " + compiledModelPath + " (KIE " + artifact.kieVersion() + ")");
+    }
+
+    public void invalidateCompiledModel(String dmnFilePath) {
+        modelCache.invalidate(dmnFilePath);
+    }
+
     public JsonNode extractInputSchema(
         String dmnXml,
         Map<String, String> dependenciesMap,
@@ -230,9 +352,12 @@ public class KieDmnService implements DmnService {
     ) throws Exception {
         Log.info("Extracting input schema from DMN model: " + modelId);
 
-        DmnModelResult modelResult = compileAndGetDmnModel(dmnXml, dependenciesMap, modelId);
-        DMNModel dmnModel = modelResult.model;
-        Set<InputDataNode> inputs = dmnModel.getInputs();
+        // Only the input data names are needed, so read the DMN metadata instead of compiling the model
+        DmnParser metadata = new DmnParser(dmnXml);
+        if (metadata.getParseError() != null) {
+            throw new IllegalArgumentException("Invalid DMN definition for model " + modelId + ": " + metadata.getParseError());
+        }
+        List<DmnParser.DmnElement> inputs = metadata.getInputs();
 
         ObjectMapper mapper = new ObjectMapper();
 
@@ -245,8 +370,8 @@ public class KieDmnService implements DmnService {
         // Fill out custom properties and check if parameters input exists
         ObjectNode customProperties = mapper.createObjectNode();
         boolean hasParametersInput = false;
-        for (InputDataNode input : inputs) {
-            String inputName = input.getName();
+        for (DmnParser.DmnElement input : inputs) {
+            String inputName = input.name();
             if ("parameters".equals(inputName)) {
                 hasParametersInput = true;
                 continue;
@@ -10,6 +10,7 @@ import jakarta.inject.Inject;
 import org.acme.enums.EvaluationResult;
 import org.acme.model.domain.CheckConfig;
 import org.acme.model.domain.EligibilityCheck;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
 import org.acme.persistence.StorageService;
 import org.acme.persistence.FirestoreUtils;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -18,18 +19,24 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 @ApplicationScoped
 public class LibraryApiService {
     private static final String DEFAULT_LIBRARY_API_URL = "http://localhost:8083";
     private static final String AS_OF_DATE_PARAMETER = "asOfDate";
+    private static final String API_PATH_PREFIX = "/api/v1/";
+    private static final String BATCH_EVALUATION_PATH = "/api/v1/_batch";
 
     public record LibraryCheckEvaluation(
         EvaluationResult result,
@@ -42,12 +49,70 @@ public class LibraryApiService {
         List<String> defaultedParameters
     ) {}
 
+    // A resolved request to one library check's decision service
+    private record LibraryCall(
+        String checkId,
+        String baseUrl,
+        String evaluationUrl,
+        EffectiveParameters effectiveParameters
+    ) {}
+
+    public record HostStats(
+        long inFlight,
+        long requests,
+        long failures,
+        double meanLatencyMillis,
+        double maxLatencyMillis
+    ) {}
+
+    // Latency and in-flight counters for one library-api host
+    static class HostCounters {
+        final AtomicLong inFlight = new AtomicLong();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long elapsedNanos, boolean failed) {
+            requests.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            totalNanos.addAndGet(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        HostStats snapshot() {
+            long count = requests.get();
+            double mean = count == 0 ? 0 : totalNanos.get() / (double) count / 1_000_000;
+            return new HostStats(inFlight.get(), count, failures.get(), mean, maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    // Jackson caches serializers per mapper, so share one instead of building one per call
+    private static final ObjectMapper mapper = new ObjectMapper();
+
     @Inject
     private StorageService storageService;
 
+    @Inject
+    EvaluationMetrics metrics;
+
     @ConfigProperty(name = "library-api.base-url")
     Optional<String> libraryApiBaseUrl;
 
+    @ConfigProperty(name = "library-api.connect-timeout", defaultValue = "PT5S")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "library-api.request-timeout", defaultValue = "PT15S")
+    Duration requestTimeout;
+
+    // One long-lived client per library-api base URL (each versioned Cloud Run host gets its own),
+    // so connections, TLS sessions and HTTP/2 streams are reused across evaluations
+    private final Map<String, HttpClient> clientsByBaseUrl = new ConcurrentHashMap<>();
+    private final Map<String, HostCounters> countersByBaseUrl = new ConcurrentHashMap<>();
+    private final Set<String> hostsWithoutBatch = ConcurrentHashMap.newKeySet();
+
     private List<EligibilityCheck> checks;
     private String effectiveBaseUrl;
     private boolean useVersionedUrls;
@@ -85,8 +150,6 @@ public class LibraryApiService {
             }
             String apiSchemaJson = apiSchemaOpt.get();
 
-            ObjectMapper mapper = new ObjectMapper();
-
             checks = mapper.readValue(apiSchemaJson, new TypeReference<List<EligibilityCheck>>() {});
             Log.info("Loaded " + checks.size() + " library checks");
         } catch (Exception e) {
@@ -115,90 +178,266 @@ public class LibraryApiService {
     }
 
     public LibraryCheckEvaluation evaluateCheck(CheckConfig checkConfig, Map<String, Object> inputs) throws JsonProcessingException {
-
         // TODO: Check that checkConfig has required attributes and handle null values
-        EffectiveParameters effectiveParameters = buildEffectiveParameters(checkConfig);
+        return evaluate(toCall(checkConfig), inputs);
+    }
+
+    /**
+     * Evaluates one planned library check with its own request.
+     */
+    public LibraryCheckEvaluation evaluatePlannedCheck(PlannedCheck plannedCheck, Map<String, Object> inputs) throws JsonProcessingException {
+        return evaluate(toCall(plannedCheck), inputs);
+    }
+
+    /**
+     * Evaluates planned library checks that share the same library-api host in a single
+     * POST /api/v1/_batch call, sharing one copy of the situation. Results are returned in the
+     * same order as the given checks.
+     *
+     * library-api evaluates the items of a batch one after another, so callers keep batches small and
+     * send several of them concurrently (see ScreenerEvaluationService).
+     *
+     * @return empty if the host has no batch endpoint (library-api revisions published before it
+     *         existed), in which case the checks should be evaluated one request each; such hosts are
+     *         remembered and not asked again. If the batch fails otherwise (an error status, a timeout or
+     *         an unreachable host), every check is unable to determine, as it would be on its own request,
+     *         rather than sending each check to the same failing host again
+     */
+    public Optional<List<LibraryCheckEvaluation>> evaluateBatch(List<PlannedCheck> plannedChecks, Map<String, Object> inputs) throws JsonProcessingException {
+        List<LibraryCall> calls = plannedChecks.stream().map(this::toCall).toList();
+        String baseUrl = calls.get(0).baseUrl();
+        if (hostsWithoutBatch.contains(baseUrl)) {
+            return Optional.empty();
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (LibraryCall call : calls) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("path", toModelPath(call.evaluationUrl()));
+            item.put("parameters", call.effectiveParameters().parameters());
+            items.add(item);
+        }
 
         Map<String, Object> data = new HashMap<>();
-        data.put("parameters", effectiveParameters.parameters());
         data.put("situation", inputs);
-        ObjectMapper mapper = new ObjectMapper();
+        data.put("items", items);
         String bodyJson = mapper.writeValueAsString(data);
 
-        HttpClient client = HttpClient.newHttpClient();
+        List<Map<String, Object>> itemResults;
+        try {
+            HttpResponse<String> response = post(baseUrl, BATCH_EVALUATION_PATH, bodyJson);
+            if (response.statusCode() == 404 || response.statusCode() == 405) {
+                Log.warn("Batch evaluation not available at " + baseUrl + " (status " + response.statusCode() + "), evaluating its checks individually");
+                hostsWithoutBatch.add(baseUrl);
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                Log.error("Batch evaluation failed at " + baseUrl + " (status " + response.statusCode() + ")");
+                return Optional.of(unableToDetermine(calls));
+            }
+            Map<String, List<Map<String, Object>>> responseBody = mapper.readValue(
+                    response.body(),
+                    new TypeReference<Map<String, List<Map<String, Object>>>>() {}
+            );
+            itemResults = responseBody.get("results");
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return Optional.of(unableToDetermine(calls));
+        }
+        catch (Exception e){
+            Log.error("Batch evaluation failed at " + baseUrl, e);
+            return Optional.of(unableToDetermine(calls));
+        }
 
-        // Determine base URL based on configuration
-        String baseUrl;
-        if (useVersionedUrls) {
-            // Production: Use versioned Cloud Run URLs
-            String urlEncodedVersion = checkConfig.getCheckVersion().replace('.', '-');
-            baseUrl = String.format("https://library-api-v%s---library-api-cnsoqyluna-uc.a.run.app", urlEncodedVersion);
-            Log.debug("Using versioned URL: " + baseUrl);
-        } else {
-            // Development: Use configured base URL directly
-            baseUrl = effectiveBaseUrl;
-            Log.debug("Using base URL: " + baseUrl);
+        if (itemResults == null || itemResults.size() != calls.size()) {
+            Log.error("Batch evaluation at " + baseUrl + " returned an unexpected number of results");
+            return Optional.of(unableToDetermine(calls));
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + checkConfig.getEvaluationUrl()))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(bodyJson))
-                .build();
+        List<LibraryCheckEvaluation> evaluations = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            Map<String, Object> itemResult = itemResults.get(i);
+            EffectiveParameters effectiveParameters = calls.get(i).effectiveParameters();
+            Object status = itemResult.get("status");
+            Object body = itemResult.get("body");
+            if (!(status instanceof Number) || ((Number) status).intValue() != 200 || !(body instanceof Map)) {
+                Log.error("Error evaluating library check " + calls.get(i).checkId() + " in batch");
+                evaluations.add(unableToDetermine(effectiveParameters));
+                continue;
+            }
+            evaluations.add(toEvaluation((Map<String, Object>) body, effectiveParameters));
+        }
+        return Optional.of(evaluations);
+    }
+
+    private LibraryCheckEvaluation evaluate(LibraryCall call, Map<String, Object> inputs) throws JsonProcessingException {
+        EffectiveParameters effectiveParameters = call.effectiveParameters();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("parameters", effectiveParameters.parameters());
+        data.put("situation", inputs);
+        String bodyJson = mapper.writeValueAsString(data);
 
         try {
-            HttpResponse<String> response =
-                    client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = post(call.baseUrl(), call.evaluationUrl(), bodyJson);
 
             int statusCode = response.statusCode();
             if (statusCode != 200){
-                Log.error("Error evaluating library check " + checkConfig.getCheckId());
+                Log.error("Error evaluating library check " + call.checkId());
                 Log.error("Inputs and parameters that caused error:" + bodyJson);
-                return new LibraryCheckEvaluation(
-                    EvaluationResult.UNABLE_TO_DETERMINE,
-                    effectiveParameters.parameters(),
-                    effectiveParameters.defaultedParameters()
-                );
+                return unableToDetermine(effectiveParameters);
             }
             String body = response.body();
             Map<String, Object> responseBody = mapper.readValue(
                     body,
                     new TypeReference<Map<String, Object>>() {}
             );
-
-            // TODO: Need a safer way to validate the returned data is in the right format
-            Object result = responseBody.get("checkResult");
-            if (result == null) {
-                return new LibraryCheckEvaluation(
-                    EvaluationResult.UNABLE_TO_DETERMINE,
-                    effectiveParameters.parameters(),
-                    effectiveParameters.defaultedParameters()
-                );
-            }
-            return new LibraryCheckEvaluation(
-                EvaluationResult.fromStringIgnoreCase(result.toString()),
-                effectiveParameters.parameters(),
-                effectiveParameters.defaultedParameters()
-            );
+            return toEvaluation(responseBody, effectiveParameters);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return unableToDetermine(effectiveParameters);
         }
         catch (Exception e){
             Log.error(e);
-            return new LibraryCheckEvaluation(
-                EvaluationResult.UNABLE_TO_DETERMINE,
-                effectiveParameters.parameters(),
-                effectiveParameters.defaultedParameters()
-            );
+            return unableToDetermine(effectiveParameters);
+        }
+    }
+
+    private LibraryCall toCall(CheckConfig checkConfig) {
+        return new LibraryCall(
+            checkConfig.getCheckId(),
+            resolveBaseUrl(checkConfig),
+            checkConfig.getEvaluationUrl(),
+            buildEffectiveParameters(checkConfig)
+        );
+    }
+
+    private LibraryCall toCall(PlannedCheck plannedCheck) {
+        return new LibraryCall(
+            plannedCheck.checkId(),
+            resolveBaseUrl(plannedCheck.checkVersion()),
+            plannedCheck.evaluationUrl(),
+            buildEffectiveParameters(plannedCheck.parameters(), plannedCheck.defaultAsOfDate())
+        );
+    }
+
+    private HttpResponse<String> post(String baseUrl, String path, String bodyJson) throws Exception {
+        HttpClient client = clientFor(baseUrl);
+        HostCounters counters = countersByBaseUrl.computeIfAbsent(baseUrl, url -> {
+            HostCounters created = new HostCounters();
+            metrics.bindLibraryInFlight(url, created.inFlight);
+            return created;
+        });
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(bodyJson))
+                .build();
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        counters.inFlight.incrementAndGet();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            failed = response.statusCode() != 200;
+            return response;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            counters.inFlight.decrementAndGet();
+            counters.record(elapsedNanos, failed);
+            metrics.recordLibraryRequest(baseUrl, failed ? "failure" : "success", elapsedNanos);
         }
     }
 
+    private LibraryCheckEvaluation toEvaluation(Map<String, Object> responseBody, EffectiveParameters effectiveParameters) {
+        // TODO: Need a safer way to validate the returned data is in the right format
+        Object result = responseBody.get("checkResult");
+        if (result == null) {
+            return unableToDetermine(effectiveParameters);
+        }
+        return new LibraryCheckEvaluation(
+            EvaluationResult.fromStringIgnoreCase(result.toString()),
+            effectiveParameters.parameters(),
+            effectiveParameters.defaultedParameters()
+        );
+    }
+
+    private LibraryCheckEvaluation unableToDetermine(EffectiveParameters effectiveParameters) {
+        return new LibraryCheckEvaluation(
+            EvaluationResult.UNABLE_TO_DETERMINE,
+            effectiveParameters.parameters(),
+            effectiveParameters.defaultedParameters()
+        );
+    }
+
+    private List<LibraryCheckEvaluation> unableToDetermine(List<LibraryCall> calls) {
+        return calls.stream().map(call -> unableToDetermine(call.effectiveParameters())).toList();
+    }
+
+    static String toModelPath(String evaluationUrl) {
+        String path = evaluationUrl.startsWith(API_PATH_PREFIX)
+            ? evaluationUrl.substring(API_PATH_PREFIX.length())
+            : evaluationUrl;
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    /**
+     * Returns latency and in-flight request counters for each library-api host called so far.
+     */
+    public Map<String, HostStats> getHostStats() {
+        Map<String, HostStats> stats = new HashMap<>();
+        countersByBaseUrl.forEach((baseUrl, counters) -> stats.put(baseUrl, counters.snapshot()));
+        return stats;
+    }
+
+    public String resolveBaseUrl(CheckConfig checkConfig) {
+        return resolveBaseUrl(checkConfig.getCheckVersion());
+    }
+
+    /**
+     * The library-api host that serves the given check version in this deployment.
+     */
+    public String resolveBaseUrl(String checkVersion) {
+        if (useVersionedUrls) {
+            // Production: Use versioned Cloud Run URLs
+            String urlEncodedVersion = checkVersion.replace('.', '-');
+            String baseUrl = String.format("https://library-api-v%s---library-api-cnsoqyluna-uc.a.run.app", urlEncodedVersion);
+            Log.debug("Using versioned URL: " + baseUrl);
+            return baseUrl;
+        }
+        // Development: Use configured base URL directly
+        Log.debug("Using base URL: " + effectiveBaseUrl);
+        return effectiveBaseUrl;
+    }
+
+    private HttpClient clientFor(String baseUrl) {
+        return clientsByBaseUrl.computeIfAbsent(baseUrl, url -> {
+            // HTTP/2 is negotiated via ALPN over TLS; plain http (local dev) stays on HTTP/1.1
+            // rather than attempting an h2c upgrade on every POST
+            HttpClient.Version version = url.startsWith("https://")
+                ? HttpClient.Version.HTTP_2
+                : HttpClient.Version.HTTP_1_1;
+            Log.info("Creating library-api HTTP client for " + url + " (" + version + ")");
+            return HttpClient.newBuilder()
+                    .version(version)
+                    .connectTimeout(connectTimeout)
+                    .build();
+        });
+    }
+
     EffectiveParameters buildEffectiveParameters(CheckConfig checkConfig) {
-        Map<String, Object> configuredParameters = checkConfig.getParameters() != null
-            ? checkConfig.getParameters()
-            : Map.of();
-        Map<String, Object> parameters = new HashMap<>(configuredParameters);
+        return buildEffectiveParameters(checkConfig.getParameters(), defaultsAsOfDate(checkConfig));
+    }
+
+    EffectiveParameters buildEffectiveParameters(Map<String, Object> configuredParameters, boolean defaultAsOfDate) {
+        Map<String, Object> parameters = new HashMap<>(configuredParameters != null ? configuredParameters : Map.of());
         List<String> defaultedParameters = new ArrayList<>();
 
-        if (declaresAsOfDateParameter(checkConfig) && isMissingParameter(parameters.get(AS_OF_DATE_PARAMETER))) {
+        if (defaultAsOfDate) {
             parameters.put(AS_OF_DATE_PARAMETER, LocalDate.now().toString());
             defaultedParameters.add(AS_OF_DATE_PARAMETER);
         }
@@ -206,6 +445,17 @@ public class LibraryApiService {
         return new EffectiveParameters(parameters, defaultedParameters);
     }
 
+    /**
+     * Whether the check declares an asOfDate parameter that the screener leaves unset, in which case
+     * it defaults to the date of evaluation.
+     */
+    boolean defaultsAsOfDate(CheckConfig checkConfig) {
+        Object configuredAsOfDate = checkConfig.getParameters() != null
+            ? checkConfig.getParameters().get(AS_OF_DATE_PARAMETER)
+            : null;
+        return declaresAsOfDateParameter(checkConfig) && isMissingParameter(configuredAsOfDate);
+    }
+
     private boolean declaresAsOfDateParameter(CheckConfig checkConfig) {
         if (checkConfig.getParameterDefinitions() == null) {
             return false;
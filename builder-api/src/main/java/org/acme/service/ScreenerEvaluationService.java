@@ -0,0 +1,376 @@
+package org.acme.service;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.acme.enums.EvaluationResult;
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.CheckKind;
+import org.acme.model.domain.EvaluationPlan.PlannedBenefit;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Evaluates every check of every benefit in a screener, following the screener's evaluation plan.
+ *
+ * Checks are I/O bound (library-api HTTP calls, DMN downloads), so they run on virtual threads:
+ * each custom check gets its own task, and the library checks bound for the same library-api host
+ * are sent together in batch requests of at most evaluation.library-batch-size checks. library-api
+ * evaluates a batch sequentially, so a host's batches are sent concurrently, and a host that cannot
+ * evaluate a batch gets one task per check instead. A per-request semaphore caps how many of these tasks are
+ * in flight at once and a per-request deadline bounds the total time spent; checks still running at
+ * the deadline are cancelled and reported as UNABLE_TO_DETERMINE. A check that several benefits call
+ * with the same parameters is evaluated once per request and its result reported under each benefit.
+ *
+ * Published screener evaluations also go through EvaluationResultCache when it is enabled.
+ */
+@ApplicationScoped
+public class ScreenerEvaluationService {
+
+    record CheckEvaluation(
+        EvaluationResult result,
+        Map<String, Object> effectiveParameters,
+        List<String> defaultedParameters
+    ) {}
+
+    /**
+     * What a check is evaluated with, apart from the situation: checks with equal invocations in one
+     * request (the same library check and parameters in several benefits) return the same result.
+     * An asOfDate defaulted to the evaluation date is the same for every check in a request.
+     */
+    record Invocation(
+        CheckKind kind,
+        String checkId,
+        String checkName,
+        String checkVersion,
+        String evaluationUrl,
+        String dmnPath,
+        Map<String, Object> parameters,
+        boolean defaultAsOfDate
+    ) {
+        static Invocation of(PlannedCheck check) {
+            return new Invocation(
+                check.kind(),
+                check.checkId(),
+                check.checkName(),
+                check.checkVersion(),
+                check.evaluationUrl(),
+                check.dmnPath(),
+                check.parameters(),
+                check.defaultAsOfDate()
+            );
+        }
+    }
+
+    private record PlanEvaluation(Map<String, Object> results, boolean determined) {}
+
+    @Inject
+    DmnService dmnService;
+
+    @Inject
+    LibraryApiService libraryApi;
+
+    @Inject
+    EvaluationPlanService evaluationPlanService;
+
+    @Inject
+    EvaluationMetrics metrics;
+
+    @Inject
+    EvaluationResultCache resultCache;
+
+    @ConfigProperty(name = "evaluation.max-concurrent-checks", defaultValue = "16")
+    int maxConcurrentChecks;
+
+    @ConfigProperty(name = "evaluation.timeout", defaultValue = "PT30S")
+    Duration timeout;
+
+    @ConfigProperty(name = "evaluation.library-batch-size", defaultValue = "8")
+    int libraryBatchSize;
+
+    /**
+     * Evaluates all benefits against the (already transformed) form data.
+     *
+     * @return map of benefit id to benefit result, in the same shape the decision endpoints return
+     */
+    public Map<String, Object> evaluateBenefits(List<Benefit> benefits, Map<String, Object> formData) throws Exception {
+        return evaluatePlan(evaluationPlanService.buildPlan(null, null, benefits), formData);
+    }
+
+    /**
+     * Evaluates a prepared evaluation plan against the (already transformed) form data.
+     *
+     * @return map of benefit id to benefit result, in the same shape the decision endpoints return
+     */
+    public Map<String, Object> evaluatePlan(EvaluationPlan plan, Map<String, Object> formData) throws Exception {
+        return evaluatePlan(plan, formData, null).results();
+    }
+
+    /**
+     * Evaluates a published screener's plan, reusing cached screener and check results for the same
+     * situation when the result cache applies to the screener.
+     *
+     * @return map of benefit id to benefit result, in the same shape the decision endpoints return
+     */
+    public Map<String, Object> evaluatePublishedPlan(EvaluationPlan plan, Map<String, Object> formData) throws Exception {
+        if (!resultCache.appliesTo(plan.screenerId())) {
+            return evaluatePlan(plan, formData);
+        }
+        EvaluationResultCache.Situation situation = resultCache.situationOf(plan, formData);
+        Optional<Map<String, Object>> cached = resultCache.getResults(plan, situation);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        PlanEvaluation evaluation = evaluatePlan(plan, formData, situation);
+        if (evaluation.determined()) {
+            resultCache.putResults(plan, situation, evaluation.results());
+        }
+        return evaluation.results();
+    }
+
+    // A non-null situation reads and fills the check level of the result cache
+    private PlanEvaluation evaluatePlan(
+        EvaluationPlan plan,
+        Map<String, Object> formData,
+        EvaluationResultCache.Situation situation
+    ) throws Exception {
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        Semaphore permits = new Semaphore(maxConcurrentChecks);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            // One pending result per (benefit, check) slot; slots with the same invocation share a future
+            List<List<CompletableFuture<CheckEvaluation>>> benefitFutures = new ArrayList<>();
+            Map<Invocation, CompletableFuture<CheckEvaluation>> futuresByInvocation = new HashMap<>();
+            // Library checks are grouped by library-api host so each host gets a single batch request
+            Map<String, List<PlannedCheck>> libraryChecksByBaseUrl = new LinkedHashMap<>();
+            Map<String, List<CompletableFuture<CheckEvaluation>>> libraryFuturesByBaseUrl = new LinkedHashMap<>();
+
+            for (PlannedBenefit benefit : plan.benefits()) {
+                List<CompletableFuture<CheckEvaluation>> checkFutures = new ArrayList<>();
+                for (PlannedCheck check : benefit.checks()) {
+                    Invocation invocation = Invocation.of(check);
+                    CompletableFuture<CheckEvaluation> shared = futuresByInvocation.get(invocation);
+                    if (shared != null) {
+                        checkFutures.add(shared);
+                        continue;
+                    }
+                    CompletableFuture<CheckEvaluation> future = new CompletableFuture<>();
+                    futuresByInvocation.put(invocation, future);
+                    checkFutures.add(future);
+                    Optional<CheckEvaluation> cached = situation != null
+                        ? resultCache.getCheck(check, situation)
+                        : Optional.empty();
+                    if (cached.isPresent()) {
+                        future.complete(cached.get());
+                    } else if (check.kind() == CheckKind.LIBRARY) {
+                        String baseUrl = libraryApi.resolveBaseUrl(check.checkVersion());
+                        libraryChecksByBaseUrl.computeIfAbsent(baseUrl, k -> new ArrayList<>()).add(check);
+                        libraryFuturesByBaseUrl.computeIfAbsent(baseUrl, k -> new ArrayList<>()).add(future);
+                    } else {
+                        submit(executor, permits, List.of(future), () -> List.of(evaluateCustomCheck(check, formData)));
+                    }
+                }
+                benefitFutures.add(checkFutures);
+            }
+
+            for (Map.Entry<String, List<PlannedCheck>> entry : libraryChecksByBaseUrl.entrySet()) {
+                List<PlannedCheck> checks = entry.getValue();
+                List<CompletableFuture<CheckEvaluation>> futures = libraryFuturesByBaseUrl.get(entry.getKey());
+                int batchSize = Math.max(1, libraryBatchSize);
+                for (int from = 0; from < checks.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, checks.size());
+                    submitLibraryChecks(executor, permits, futures.subList(from, to), checks.subList(from, to), formData);
+                }
+            }
+
+            // Collect in benefit/check order so result keys match sequential evaluation
+            Map<String, Object> screenerResults = new HashMap<String, Object>();
+            boolean determined = true;
+            for (int i = 0; i < plan.benefits().size(); i++) {
+                PlannedBenefit benefit = plan.benefits().get(i);
+                List<CheckEvaluation> checkEvaluations = new ArrayList<>();
+                for (int j = 0; j < benefit.checks().size(); j++) {
+                    PlannedCheck check = benefit.checks().get(j);
+                    CheckEvaluation checkEvaluation = awaitCheck(benefitFutures.get(i).get(j), check, deadlineNanos);
+                    metrics.recordCheckResult(plan.screenerId(), check, checkEvaluation.result());
+                    checkEvaluations.add(checkEvaluation);
+                    if (checkEvaluation.result() == EvaluationResult.UNABLE_TO_DETERMINE) {
+                        determined = false;
+                    } else if (situation != null) {
+                        resultCache.putCheck(check, situation, checkEvaluation);
+                    }
+                }
+                screenerResults.put(benefit.id(), buildBenefitResult(benefit, checkEvaluations));
+            }
+            return new PlanEvaluation(screenerResults, determined);
+        } finally {
+            // Don't block on stragglers; anything still running past the deadline is interrupted
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface EvaluationTask {
+        List<CheckEvaluation> run() throws Exception;
+    }
+
+    /**
+     * Evaluates library checks for one host as a single batch, or as one task per check if the host
+     * has no batch endpoint. The per-check tasks are queued behind the concurrency cap like any
+     * other, after the batch task has given its permit back.
+     */
+    private void submitLibraryChecks(
+        ExecutorService executor,
+        Semaphore permits,
+        List<CompletableFuture<CheckEvaluation>> futures,
+        List<PlannedCheck> checks,
+        Map<String, Object> formData
+    ) {
+        if (checks.size() == 1) {
+            submit(executor, permits, futures, () -> List.of(toCheckEvaluation(libraryApi.evaluatePlannedCheck(checks.get(0), formData))));
+            return;
+        }
+        submit(executor, permits, futures, () -> {
+            Optional<List<LibraryApiService.LibraryCheckEvaluation>> batch = libraryApi.evaluateBatch(checks, formData);
+            if (batch.isPresent()) {
+                return batch.get().stream().map(this::toCheckEvaluation).toList();
+            }
+            for (int i = 0; i < checks.size(); i++) {
+                PlannedCheck check = checks.get(i);
+                submit(executor, permits, futures.subList(i, i + 1), () -> List.of(toCheckEvaluation(libraryApi.evaluatePlannedCheck(check, formData))));
+            }
+            return null;
+        });
+    }
+
+    private CheckEvaluation toCheckEvaluation(LibraryApiService.LibraryCheckEvaluation evaluation) {
+        return new CheckEvaluation(
+            evaluation.result(),
+            evaluation.effectiveParameters(),
+            evaluation.defaultedParameters()
+        );
+    }
+
+    /**
+     * Runs the task on the executor under the request's concurrency cap and completes each of the
+     * given futures with the task's result at the same position. A task that returns null has handed
+     * its futures on to tasks of its own.
+     */
+    private void submit(
+        ExecutorService executor,
+        Semaphore permits,
+        List<CompletableFuture<CheckEvaluation>> futures,
+        EvaluationTask task
+    ) {
+        executor.submit(() -> {
+            try {
+                permits.acquire();
+                try {
+                    List<CheckEvaluation> evaluations = task.run();
+                    for (int i = 0; evaluations != null && i < futures.size(); i++) {
+                        futures.get(i).complete(evaluations.get(i));
+                    }
+                } finally {
+                    permits.release();
+                }
+            } catch (Throwable t) {
+                futures.forEach(future -> future.completeExceptionally(t));
+            }
+        });
+    }
+
+    private CheckEvaluation awaitCheck(Future<CheckEvaluation> future, PlannedCheck check, long deadlineNanos) throws Exception {
+        try {
+            long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+            return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            Log.warn("Check " + check.checkId() + " did not complete within " + timeout);
+            return new CheckEvaluation(EvaluationResult.UNABLE_TO_DETERMINE, check.parameters(), List.of());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CheckEvaluation evaluateCustomCheck(PlannedCheck check, Map<String, Object> formData) throws Exception {
+        // The situation view and the planned parameters are immutable, so every check shares them as-is
+        Map<String, Object> customFormValues = (Map<String, Object>) formData.get("custom");
+        if (customFormValues == null) {
+            customFormValues = Map.of();
+        }
+        EvaluationResult evaluationResult = dmnService.evaluateDmn(
+            check.dmnPath(), check.checkName(), customFormValues, check.parameters()
+        );
+        return new CheckEvaluation(evaluationResult, check.parameters(), List.of());
+    }
+
+    private Map<String, Object> buildBenefitResult(PlannedBenefit benefit, List<CheckEvaluation> checkEvaluations) {
+        List<EvaluationResult> resultsList = new ArrayList<>();
+        Map<String, Object> checkResults = new HashMap<>();
+
+        List<PlannedCheck> checks = benefit.checks();
+        for (int checkNum = 0; checkNum < checks.size(); checkNum++) {
+            PlannedCheck check = checks.get(checkNum);
+            CheckEvaluation checkEvaluation = checkEvaluations.get(checkNum);
+            resultsList.add(checkEvaluation.result());
+
+            String uniqueCheckKey = check.checkId() + checkNum;
+            Map<String, Object> checkResultMap = new HashMap<>();
+            checkResultMap.put("name", check.checkName());
+            checkResultMap.put("aliasName", check.aliasName());
+            checkResultMap.put("result", checkEvaluation.result());
+            checkResultMap.put("module", check.checkModule() != null ? check.checkModule() : "");
+            checkResultMap.put("version", check.checkVersion() != null ? check.checkVersion() : "");
+            checkResultMap.put("parameters", check.parameters());
+            checkResultMap.put("effectiveParameters", checkEvaluation.effectiveParameters());
+            checkResultMap.put("defaultedParameters", checkEvaluation.defaultedParameters());
+            checkResults.put(uniqueCheckKey, checkResultMap);
+        }
+
+        EvaluationResult benefitEvaluationResult = switch (benefit.aggregation()) {
+            case ALL_CHECKS -> aggregateAllChecks(resultsList);
+        };
+
+        return new HashMap<String, Object>(
+            Map.of(
+                "name", benefit.name(),
+                "result", benefitEvaluationResult,
+                "check_results", checkResults
+            )
+        );
+    }
+
+    // TRUE if every check is TRUE, FALSE if any check is FALSE, otherwise UNABLE_TO_DETERMINE
+    private EvaluationResult aggregateAllChecks(List<EvaluationResult> resultsList) {
+        Boolean allChecksTrue = resultsList.stream().allMatch(evaluationResult -> evaluationResult == EvaluationResult.TRUE);
+        Boolean anyChecksFalse = resultsList.stream().anyMatch(evaluationResult -> evaluationResult == EvaluationResult.FALSE);
+
+        if (allChecksTrue) {
+            return EvaluationResult.TRUE;
+        } else if (anyChecksFalse) {
+            return EvaluationResult.FALSE;
+        }
+        return EvaluationResult.UNABLE_TO_DETERMINE;
+    }
+}
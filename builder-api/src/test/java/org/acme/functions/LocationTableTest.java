@@ -0,0 +1,73 @@
+package org.acme.functions;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationTableTest {
+
+    private static LocationTable table() {
+        return LocationTable.of(
+            List.of("zipCode", "countyName", "countyFips", "stateAbbreviation"),
+            List.of(
+                new String[] {"19104", "Philadelphia", "42101", "PA"},
+                new String[] {"19103", "Philadelphia", "42101", "PA"},
+                new String[] {"00670", "Las Marias", "72083", "PR"},
+                new String[] {"00670", "Mayaguez", "72097", "PR"},
+                new String[] {"08002", "Camden", "34007", "NJ"}
+            )
+        );
+    }
+
+    @Test
+    void lookup_returnsDistinctValuesOfMatchingRows() {
+        LocationTable table = table();
+
+        assertEquals(List.of("Philadelphia"), table.lookup("countyName", Map.of("stateAbbreviation", "PA")));
+        assertEquals(List.of("Las Marias", "Mayaguez"), table.lookup("countyName", Map.of("zipCode", "00670")));
+    }
+
+    @Test
+    void lookup_andsAllFilters() {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("zipCode", "00670");
+        filters.put("countyFips", "72097");
+
+        assertEquals(List.of("Mayaguez"), table().lookup("countyName", filters));
+    }
+
+    @Test
+    void lookup_comparesFilterValuesAsStrings() {
+        assertEquals(List.of("NJ"), table().lookup("stateAbbreviation", Map.of("countyFips", new BigDecimal("34007"))));
+    }
+
+    @Test
+    void lookup_matchesColumnNamesIgnoringCase() {
+        assertEquals(List.of("PA"), table().lookup("STATEABBREVIATION", Map.of("zipcode", "19104")));
+    }
+
+    @Test
+    void lookup_returnsEmptyForUnknownValuesAndColumns() {
+        LocationTable table = table();
+
+        assertTrue(table.lookup("countyName", Map.of("zipCode", "99999")).isEmpty());
+        assertTrue(table.lookup("population", Map.of("zipCode", "19104")).isEmpty());
+        assertTrue(table.lookup("countyName", Map.of("population", "1")).isEmpty());
+        assertTrue(table.lookup("countyName", Map.of()).isEmpty());
+    }
+
+    @Test
+    void lookup_reusesAnswersForRepeatedQueries() {
+        LocationTable table = table();
+
+        assertSame(
+            table.lookup("countyName", Map.of("zipCode", "19104")),
+            table.lookup("countyName", Map.of("zipCode", "19104"))
+        );
+    }
+}
@@ -0,0 +1,119 @@
+package org.acme.persistence;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.CheckConfig;
+import org.acme.model.domain.EligibilityCheck;
+import org.acme.model.domain.Screener;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentCodecsTest {
+
+    // The Map -> ObjectMapper.convertValue path the codecs replace
+    private final ObjectMapper reader = new ObjectMapper();
+    private final ObjectMapper writer = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private static Map<String, Object> inputDefinition() {
+        return Map.of(
+            "type", "object",
+            "properties", Map.of("income", Map.of("type", "string")),
+            "required", List.of("income")
+        );
+    }
+
+    private static Map<String, Object> checkDocument() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("id", "W-owner-income-underLimit");
+        doc.put("name", "underLimit");
+        doc.put("module", "income");
+        doc.put("version", "1.0.2");
+        doc.put("ownerId", "owner");
+        doc.put("isArchived", false);
+        doc.put("inputDefinition", inputDefinition());
+        doc.put("parameterDefinitions", List.of(Map.of("key", "limit", "label", "Limit", "required", true, "type", "string")));
+        return doc;
+    }
+
+    private static Map<String, Object> benefitDocument() {
+        Map<String, Object> check = new HashMap<>();
+        check.put("checkId", "P-owner-income-underLimit-1.0.2");
+        check.put("checkName", "underLimit");
+        check.put("checkModule", "income");
+        check.put("checkVersion", "1.0.2");
+        check.put("parameters", Map.of("limit", "2000"));
+        check.put("inputDefinition", inputDefinition());
+        check.put("aliasName", "Income limit");
+
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("id", "benefit-1");
+        doc.put("name", "Rent rebate");
+        doc.put("ownerId", "owner");
+        doc.put("checks", List.of(check));
+        return doc;
+    }
+
+    @Test
+    void eligibilityCheck_encodesTheSameFieldsAsObjectMapper() {
+        Map<String, Object> doc = checkDocument();
+
+        Map<String, Object> viaCodec = DocumentCodecs.ELIGIBILITY_CHECK.encode(DocumentCodecs.ELIGIBILITY_CHECK.decode(doc));
+        Map<String, Object> viaMapper = writer.convertValue(reader.convertValue(doc, EligibilityCheck.class), Map.class);
+
+        assertEquals(viaMapper, viaCodec);
+    }
+
+    @Test
+    void benefit_encodesTheSameFieldsAsObjectMapper() {
+        Map<String, Object> doc = benefitDocument();
+
+        Map<String, Object> viaCodec = DocumentCodecs.BENEFIT.encode(DocumentCodecs.BENEFIT.decode(doc));
+        Map<String, Object> viaMapper = writer.convertValue(reader.convertValue(doc, Benefit.class), Map.class);
+
+        assertEquals(viaMapper, viaCodec);
+    }
+
+    @Test
+    void screener_decodesMetadataAndBenefitDetails() {
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("id", "screener-1");
+        doc.put("ownerId", "owner");
+        doc.put("screenerName", "Housing");
+        doc.put("lastPublishDate", "2026-01-01T00:00:00Z");
+        doc.put("formSchemaPath", "form/published/screener-1/2026-01-01T00-00-00Z.json");
+        doc.put("benefits", List.of(Map.of("id", "benefit-1", "name", "Rent rebate")));
+
+        Screener screener = DocumentCodecs.SCREENER.decode(doc);
+
+        assertEquals("screener-1", screener.getId());
+        assertEquals("2026-01-01T00:00:00Z", screener.getLastPublishDate());
+        assertEquals("form/published/screener-1/2026-01-01T00-00-00Z.json", screener.getFormSchemaPath());
+        assertEquals("Rent rebate", screener.getBenefits().get(0).getName());
+        assertEquals(writer.convertValue(reader.convertValue(doc, Screener.class), Map.class), DocumentCodecs.SCREENER.encode(screener));
+    }
+
+    @Test
+    void inputDefinition_isBuiltWhenFirstRead() {
+        CheckConfig checkConfig = DocumentCodecs.BENEFIT.decode(benefitDocument()).getChecks().get(0);
+
+        assertEquals(reader.valueToTree(inputDefinition()), checkConfig.getInputDefinition());
+        assertSame(checkConfig.getInputDefinition(), checkConfig.getInputDefinition());
+    }
+
+    @Test
+    void setInputDefinition_replacesAPendingStoredValue() {
+        EligibilityCheck check = DocumentCodecs.ELIGIBILITY_CHECK.decode(checkDocument());
+
+        check.setInputDefinition(null);
+
+        assertNull(check.getInputDefinition());
+        assertFalse(DocumentCodecs.ELIGIBILITY_CHECK.encode(check).containsKey("inputDefinition"));
+    }
+}
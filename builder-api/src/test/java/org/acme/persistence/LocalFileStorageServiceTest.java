@@ -0,0 +1,90 @@
+package org.acme.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalFileStorageService(root);
+    }
+
+    @Test
+    void writtenFiles_areReadBackInTheBucketLayout() throws Exception {
+        String dmnPath = storage.getCheckDmnModelPath("W-owner-income-underLimit");
+
+        storage.writeStringToStorage(dmnPath, "<xml/>", "application/xml");
+
+        assertTrue(Files.exists(root.resolve("check/W-owner-income-underLimit.dmn")));
+        assertEquals("<xml/>", storage.getStringFromStorage(dmnPath).orElseThrow());
+        try (InputStream stream = storage.getFileInputStreamFromStorage(dmnPath).orElseThrow()) {
+            assertEquals("<xml/>", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void missingFiles_areEmpty() throws Exception {
+        assertTrue(storage.getStringFromStorage("check/missing.dmn").isEmpty());
+        assertTrue(storage.getVersionedFile("check/missing.dmn").isEmpty());
+        assertNull(storage.getFormSchemaFromStorage("form/working/missing.json"));
+    }
+
+    @Test
+    void rewritingAFile_changesItsGeneration() throws Exception {
+        storage.writeStringToStorage("check/a.dmn", "<xml v1/>", "application/xml");
+        long first = storage.getFileGeneration("check/a.dmn").orElseThrow();
+
+        storage.writeStringToStorage("check/a.dmn", "<xml v2/>", "application/xml");
+        StorageService.VersionedFile second = storage.getVersionedFile("check/a.dmn").orElseThrow();
+
+        assertNotEquals(first, second.generation());
+        assertEquals("<xml v2/>", new String(second.content(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void publishing_copiesTheWorkingFormSchema() throws Exception {
+        storage.writeStringToStorage(storage.getScreenerWorkingFormSchemaPath("s1"), "{\"components\":[]}", "application/json");
+
+        storage.updatePublishedFormSchemaArtifact("s1", "p1", "2026-01-01T00:00:00Z");
+
+        Map<String, Object> published = storage.getFormSchemaFromStorage(
+            storage.getScreenerPublishedFormSchemaPath("p1", "2026-01-01T00:00:00Z"));
+        assertEquals(Map.of("components", List.of()), published);
+    }
+
+    @Test
+    void publishing_keepsTheFormSchemaOfEarlierVersions() throws Exception {
+        storage.writeStringToStorage(storage.getScreenerWorkingFormSchemaPath("s1"), "{\"version\":1}", "application/json");
+        storage.updatePublishedFormSchemaArtifact("s1", "p1", "2026-01-01T00:00:00Z");
+        storage.writeStringToStorage(storage.getScreenerWorkingFormSchemaPath("s1"), "{\"version\":2}", "application/json");
+        storage.updatePublishedFormSchemaArtifact("s1", "p1", "2026-01-02T00:00:00Z");
+
+        assertEquals(Map.of("version", 1), storage.getFormSchemaFromStorage(
+            storage.getScreenerPublishedFormSchemaPath("p1", "2026-01-01T00:00:00Z")));
+        assertEquals(Map.of("version", 2), storage.getFormSchemaFromStorage(
+            storage.getScreenerPublishedFormSchemaPath("p1", "2026-01-02T00:00:00Z")));
+    }
+
+    @Test
+    void pathsOutsideTheRoot_areRejected() {
+        assertThrows(Exception.class, () -> storage.writeStringToStorage("../outside.dmn", "<xml/>", "application/xml"));
+        assertTrue(storage.getFileBytesFromStorage("check/../../outside.dmn").isEmpty());
+        assertFalse(Files.exists(root.getParent().resolve("outside.dmn")));
+    }
+}
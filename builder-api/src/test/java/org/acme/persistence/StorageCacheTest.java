@@ -0,0 +1,168 @@
+package org.acme.persistence;
+
+import org.acme.persistence.StorageService.VersionedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Counts the downloads and generation lookups the cache makes
+    private static class FakeOrigin implements StorageCache.Origin {
+        final Map<String, VersionedFile> files = new HashMap<>();
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger generationChecks = new AtomicInteger();
+        long nextGeneration = 1;
+
+        void write(String filePath, String content) {
+            files.put(filePath, new VersionedFile(content.getBytes(StandardCharsets.UTF_8), nextGeneration++));
+        }
+
+        @Override
+        public Optional<VersionedFile> read(String filePath) {
+            reads.incrementAndGet();
+            return Optional.ofNullable(files.get(filePath));
+        }
+
+        @Override
+        public Optional<Long> generation(String filePath) {
+            generationChecks.incrementAndGet();
+            return Optional.ofNullable(files.get(filePath)).map(VersionedFile::generation);
+        }
+    }
+
+    private static String string(Optional<byte[]> content) {
+        return new String(content.orElseThrow(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void getBytes_downloadsPublishedFilesOnceWhileFresh() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("form/published/p.json", "{\"a\":1}");
+
+        assertEquals("{\"a\":1}", string(cache.getBytes("form/published/p.json", origin)));
+        assertEquals("{\"a\":1}", string(cache.getBytes("form/published/p.json", origin)));
+
+        assertEquals(1, origin.reads.get());
+        assertEquals(0, origin.generationChecks.get());
+        assertEquals(1, cache.getStats().memoryHits());
+        assertEquals(7, cache.getStats().bytesSaved());
+    }
+
+    @Test
+    void getBytes_revalidatesWorkingFilesOnEveryRead() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("check/a.dmn", "<xml v1/>");
+
+        cache.getBytes("check/a.dmn", origin);
+        assertEquals("<xml v1/>", string(cache.getBytes("check/a.dmn", origin)));
+        assertEquals(1, origin.reads.get());
+        assertEquals(1, origin.generationChecks.get());
+
+        // Saved through another instance, so this cache was not invalidated
+        origin.write("check/a.dmn", "<xml v2/>");
+        assertEquals("<xml v2/>", string(cache.getBytes("check/a.dmn", origin)));
+        assertEquals(2, origin.reads.get());
+    }
+
+    @Test
+    void getBytes_revalidatesByGenerationOnceStale() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ZERO);
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("check/a.dmn", "<xml v1/>");
+
+        cache.getBytes("check/a.dmn", origin);
+        assertEquals("<xml v1/>", string(cache.getBytes("check/a.dmn", origin)));
+        assertEquals(1, origin.reads.get());
+        assertEquals(1, cache.getStats().revalidations());
+
+        // Rewritten by someone else: the generation changes and the file is downloaded again
+        origin.write("check/a.dmn", "<xml v2/>");
+        assertEquals("<xml v2/>", string(cache.getBytes("check/a.dmn", origin)));
+        assertEquals(2, origin.reads.get());
+    }
+
+    @Test
+    void invalidate_dropsTheCachedCopy() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("form/working/s.json", "{}");
+
+        cache.getBytes("form/working/s.json", origin);
+        origin.write("form/working/s.json", "{\"a\":1}");
+        cache.invalidate("form/working/s.json");
+
+        assertEquals("{\"a\":1}", string(cache.getBytes("form/working/s.json", origin)));
+        assertEquals(2, origin.reads.get());
+    }
+
+    @Test
+    void largeFiles_areServedFromTheDiskTier() throws Exception {
+        StorageCache cache = new StorageCache(1024, 8, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("check/big.kjar", "larger than the memory entry limit");
+
+        cache.getBytes("check/big.kjar", origin);
+        try (InputStream stream = cache.getStream("check/big.kjar", origin).orElseThrow()) {
+            assertEquals("larger than the memory entry limit", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(1, origin.reads.get());
+        assertEquals(1, cache.getStats().diskHits());
+        assertEquals(0, cache.getStats().memoryBytes());
+    }
+
+    @Test
+    void memoryTier_evictsLeastRecentlyUsedButKeepsDiskCopy() throws Exception {
+        StorageCache cache = new StorageCache(10, 10, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("a", "123456");
+        origin.write("b", "abcdef");
+
+        cache.getBytes("a", origin);
+        cache.getBytes("b", origin);
+        assertEquals("123456", string(cache.getBytes("a", origin)));
+
+        assertEquals(2, origin.reads.get());
+        assertEquals(1, cache.getStats().diskHits());
+        assertTrue(cache.getStats().memoryBytes() <= 10);
+    }
+
+    @Test
+    void missingFiles_areNotCached() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+
+        assertTrue(cache.getBytes("check/missing.dmn", origin).isEmpty());
+        origin.write("check/missing.dmn", "<xml/>");
+
+        assertEquals("<xml/>", string(cache.getBytes("check/missing.dmn", origin)));
+    }
+
+    @Test
+    void smallFiles_areNotWrittenToDiskOnAMiss() throws Exception {
+        StorageCache cache = new StorageCache(1024, 1024, tempDir, 4096, Duration.ofMinutes(1));
+        FakeOrigin origin = new FakeOrigin();
+        origin.write("check/a.dmn", "<xml/>");
+
+        cache.getBytes("check/a.dmn", origin);
+
+        assertEquals(6, cache.getStats().memoryBytes());
+        assertEquals(0, cache.getStats().diskBytes());
+    }
+}
@@ -0,0 +1,40 @@
+package org.acme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledDmnArtifactTest {
+
+    @Test
+    void fromBytes_readsBackWhatToBytesWrote() {
+        byte[] moduleBytes = new byte[] {'P', 'K', 3, 4, '\n', 0, -1};
+        CompiledDmnArtifact artifact = CompiledDmnArtifact.of("<xml/>", moduleBytes);
+
+        Optional<CompiledDmnArtifact> read = CompiledDmnArtifact.fromBytes(artifact.toBytes());
+
+        assertTrue(read.isPresent());
+        assertArrayEquals(moduleBytes, read.get().moduleBytes());
+        assertTrue(read.get().isCurrentFor("<xml/>"));
+    }
+
+    @Test
+    void isCurrentFor_rejectsChangedDmnOrOtherKieVersion() {
+        CompiledDmnArtifact artifact = CompiledDmnArtifact.of("<xml v1/>", new byte[] {1});
+        CompiledDmnArtifact otherVersion = new CompiledDmnArtifact("0.0.1", artifact.contentHash(), new byte[] {1});
+
+        assertFalse(artifact.isCurrentFor("<xml v2/>"));
+        assertFalse(otherVersion.isCurrentFor("<xml v1/>"));
+    }
+
+    @Test
+    void fromBytes_ignoresBytesInAnotherFormat() {
+        assertTrue(CompiledDmnArtifact.fromBytes("PK\u0003\u0004 raw kjar".getBytes(StandardCharsets.UTF_8)).isEmpty());
+        assertTrue(CompiledDmnArtifact.fromBytes(new byte[0]).isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package org.acme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DmnModelCacheTest {
+
+    @Test
+    void getOrCompile_compilesOncePerContentHash() throws Exception {
+        DmnModelCache cache = new DmnModelCache(10);
+        AtomicInteger compiles = new AtomicInteger();
+
+        DmnModelResult first = cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles));
+        DmnModelResult second = cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles));
+
+        assertSame(first, second);
+        assertEquals(1, compiles.get());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    void getOrCompile_recompilesWhenContentChanges() throws Exception {
+        DmnModelCache cache = new DmnModelCache(10);
+        AtomicInteger compiles = new AtomicInteger();
+
+        DmnModelResult first = cache.getOrCompile("check/a.dmn", "<xml v1/>", () -> compiled(compiles));
+        DmnModelResult second = cache.getOrCompile("check/a.dmn", "<xml v2/>", () -> compiled(compiles));
+
+        assertNotSame(first, second);
+        assertEquals(2, compiles.get());
+        // Older revision of the same file is replaced, not kept alongside
+        assertEquals(1, cache.getStats().size());
+    }
+
+    @Test
+    void invalidate_forcesRecompile() throws Exception {
+        DmnModelCache cache = new DmnModelCache(10);
+        AtomicInteger compiles = new AtomicInteger();
+
+        cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles));
+        cache.invalidate("check/a.dmn");
+        cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles));
+
+        assertEquals(2, compiles.get());
+    }
+
+    @Test
+    void getOrCompile_evictsLeastRecentlyUsed() throws Exception {
+        DmnModelCache cache = new DmnModelCache(2);
+        AtomicInteger compiles = new AtomicInteger();
+
+        cache.getOrCompile("check/a.dmn", "<a/>", () -> compiled(compiles));
+        cache.getOrCompile("check/b.dmn", "<b/>", () -> compiled(compiles));
+        cache.getOrCompile("check/a.dmn", "<a/>", () -> compiled(compiles));
+        cache.getOrCompile("check/c.dmn", "<c/>", () -> compiled(compiles));
+        cache.getOrCompile("check/a.dmn", "<a/>", () -> compiled(compiles));
+
+        assertEquals(3, compiles.get());
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(2, cache.getStats().size());
+    }
+
+    @Test
+    void modelsLeavingTheCache_haveTheirContainersDisposed() throws Exception {
+        List<KieContainerRegistry.ManagedContainer> disposed = new ArrayList<>();
+        DmnModelCache cache = new DmnModelCache(1);
+        cache.containerRegistry = new KieContainerRegistry() {
+            @Override
+            public void dispose(ManagedContainer managed) {
+                disposed.add(managed);
+            }
+        };
+
+        DmnModelResult a = withContainer();
+        DmnModelResult aRevised = withContainer();
+        DmnModelResult b = withContainer();
+        cache.getOrCompile("check/a.dmn", "<a v1/>", () -> a);
+        cache.getOrCompile("check/a.dmn", "<a v2/>", () -> aRevised);
+        cache.getOrCompile("check/b.dmn", "<b/>", () -> b);
+        cache.invalidate("check/b.dmn");
+
+        assertEquals(List.of(a.container, aRevised.container, b.container), disposed);
+    }
+
+    @Test
+    void getOrCompile_coalescesConcurrentMissesOnTheSameRevision() throws Exception {
+        DmnModelCache cache = new DmnModelCache(10);
+        AtomicInteger compiles = new AtomicInteger();
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DmnModelResult> first = executor.submit(() -> cache.getOrCompile("check/a.dmn", "<xml/>", () -> {
+                compiling.countDown();
+                release.await();
+                return compiled(compiles);
+            }));
+            compiling.await();
+            Future<DmnModelResult> second = executor.submit(() -> cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles)));
+            // Give the second caller time to find the compile in progress before it finishes
+            Thread.sleep(50);
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, compiles.get());
+            assertEquals(1, cache.getStats().misses());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrCompile_doesNotCacheAFailedCompile() throws Exception {
+        DmnModelCache cache = new DmnModelCache(10);
+        AtomicInteger compiles = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrCompile("check/a.dmn", "<xml/>", () -> {
+            throw new IllegalStateException("DMN compilation failed");
+        }));
+        cache.getOrCompile("check/a.dmn", "<xml/>", () -> compiled(compiles));
+
+        assertEquals(1, compiles.get());
+    }
+
+    private DmnModelResult withContainer() {
+        return new DmnModelResult(null, null, new KieContainerRegistry.ManagedContainer(null, null, null, 0));
+    }
+
+    private DmnModelResult compiled(AtomicInteger compiles) {
+        compiles.incrementAndGet();
+        return new DmnModelResult(null, null);
+    }
+}
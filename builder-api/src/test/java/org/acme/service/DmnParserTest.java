@@ -113,4 +113,29 @@ public class DmnParserTest {
         DmnParser dmnParser = new DmnParser(null);
         assertNull(dmnParser.getNameSpace());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseDmnInputs(){
+        DmnParser dmnParser = new DmnParser(testXml);
+        assertEquals(1, dmnParser.getInputs().size());
+        assertEquals("householdCount", dmnParser.getInputs().get(0).name());
+        assertNull(dmnParser.getInputs().get(0).typeRef());
+    }
+
+    @Test
+    public void testParseDmnDecisionsWithTypeRef(){
+        DmnParser dmnParser = new DmnParser(testXml);
+        assertEquals(1, dmnParser.getDecisions().size());
+        assertEquals("string", dmnParser.getDecision("Philly Tax Screener").orElseThrow().typeRef());
+        assertTrue(dmnParser.getDecision("Missing Decision").isEmpty());
+        assertTrue(dmnParser.getImports().isEmpty());
+        assertNull(dmnParser.getParseError());
+    }
+
+    @Test
+    public void testParseMalformedDmnReportsError(){
+        DmnParser dmnParser = new DmnParser("<dmn:definitions name=\"broken\">");
+        assertNotNull(dmnParser.getParseError());
+        assertNull(dmnParser.getName());
+    }
+}
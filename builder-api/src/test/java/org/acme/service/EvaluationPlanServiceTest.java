@@ -0,0 +1,111 @@
+package org.acme.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.model.domain.Benefit;
+import org.acme.model.domain.CheckConfig;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.Aggregation;
+import org.acme.model.domain.EvaluationPlan.CheckKind;
+import org.acme.model.domain.EvaluationPlan.PlannedBenefit;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.acme.model.domain.Screener;
+import org.acme.persistence.InMemoryStorageService;
+import org.acme.persistence.StorageService;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EvaluationPlanServiceTest {
+
+    private final StorageService storage = new InMemoryStorageService();
+
+    private EvaluationPlanService service() {
+        EvaluationPlanService service = new EvaluationPlanService();
+        service.storageService = storage;
+        service.libraryApi = new LibraryApiService();
+        service.metrics = new EvaluationMetrics(new SimpleMeterRegistry());
+        return service;
+    }
+
+    private static Screener publishedScreener(String id, String version) {
+        Screener screener = new Screener();
+        screener.setId(id);
+        screener.setLastPublishDate(version);
+        return screener;
+    }
+
+    private static Benefit benefitWithLibraryCheck(String benefitId, int minAge) {
+        CheckConfig check = new CheckConfig();
+        check.setCheckId("L-age-personMinAge");
+        check.setCheckName("personMinAge");
+        check.setCheckModule("age");
+        check.setCheckVersion("1.0.0");
+        check.setEvaluationUrl("/api/v1/age/personMinAge");
+        check.setParameters(Map.of("minAge", minAge));
+        return new Benefit(benefitId, "Rent rebate", null, "owner", List.of(check));
+    }
+
+    private static EvaluationPlan libraryPlan(String version, int minAge) {
+        return new EvaluationPlan("p1", version, List.of(
+            new PlannedBenefit("benefit-1", "Rent rebate", Aggregation.ALL_CHECKS, List.of(
+                new PlannedCheck(
+                    "L-age-personMinAge", "personMinAge", null, "age", "1.0.0", CheckKind.LIBRARY,
+                    "/api/v1/age/personMinAge", null, Map.of("minAge", minAge), false
+                )
+            ))
+        ));
+    }
+
+    @Test
+    void plan_roundTripsThroughJson() throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("asOfDate", null);
+        parameters.put("county", "Philadelphia");
+        EvaluationPlan plan = new EvaluationPlan("p1", "2026-01-01T00:00:00Z", List.of(
+            new PlannedBenefit("benefit-1", "Rent rebate", Aggregation.ALL_CHECKS, List.of(
+                new PlannedCheck(
+                    "L-age-personMinAge", "personMinAge", "age", "age", "1.0.0", CheckKind.LIBRARY,
+                    "/api/v1/age/personMinAge", null, Map.of("minAge", 65), true
+                ),
+                new PlannedCheck(
+                    "C-lives-in", "livesIn", null, null, null, CheckKind.CUSTOM,
+                    null, "check/C-lives-in.dmn", parameters, false
+                )
+            ))
+        ));
+        ObjectMapper mapper = new ObjectMapper();
+
+        EvaluationPlan read = mapper.readValue(mapper.writeValueAsString(plan), EvaluationPlan.class);
+
+        assertEquals(plan, read);
+    }
+
+    @Test
+    void getPublishedPlan_loadsTheStoredPlanOfThePublishedVersion() throws Exception {
+        service().publishPlan(libraryPlan("v1", 65));
+
+        // A new process finds the stored plan rather than building one from the benefits it is given
+        EvaluationPlan plan = service().getPublishedPlan(publishedScreener("p1", "v1"), List.of());
+
+        assertEquals(libraryPlan("v1", 65), plan);
+    }
+
+    @Test
+    void getPublishedPlan_rebuildsWhenTheStoredPlanIsOfAnotherVersion() throws Exception {
+        EvaluationPlanService service = service();
+        service.publishPlan(libraryPlan("v1", 65));
+
+        EvaluationPlan plan = service.getPublishedPlan(
+            publishedScreener("p1", "v2"), List.of(benefitWithLibraryCheck("benefit-1", 60))
+        );
+
+        assertEquals(libraryPlan("v2", 60), plan);
+        // The rebuilt plan replaces the one kept for the previous version
+        assertEquals(plan, service.getPublishedPlan(publishedScreener("p1", "v2"), List.of()));
+    }
+}
@@ -0,0 +1,123 @@
+package org.acme.service;
+
+import org.acme.enums.EvaluationResult;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.Aggregation;
+import org.acme.model.domain.EvaluationPlan.CheckKind;
+import org.acme.model.domain.EvaluationPlan.PlannedBenefit;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.acme.service.EvaluationResultCache.Situation;
+import org.acme.service.ScreenerEvaluationService.CheckEvaluation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationResultCacheTest {
+
+    private static PlannedCheck libraryCheck(String checkId, Map<String, Object> parameters, boolean defaultAsOfDate) {
+        return new PlannedCheck(
+            checkId, "personMinAge", null, "age", "1.0.0", CheckKind.LIBRARY,
+            "/api/v1/age/personMinAge", null, parameters, defaultAsOfDate
+        );
+    }
+
+    private static EvaluationPlan plan(String version, PlannedCheck... checks) {
+        return new EvaluationPlan("screener-1", version, List.of(
+            new PlannedBenefit("benefit-1", "Benefit", Aggregation.ALL_CHECKS, List.of(checks))
+        ));
+    }
+
+    @Test
+    void hash_ignoresTheOrderOfFormFields() throws Exception {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("income", 1200);
+        first.put("people", List.of(Map.of("age", 70, "id", "p1")));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("people", List.of(Map.of("id", "p1", "age", 70)));
+        second.put("income", 1200);
+
+        assertEquals(EvaluationResultCache.hash(first), EvaluationResultCache.hash(second));
+        assertNotEquals(EvaluationResultCache.hash(first), EvaluationResultCache.hash(Map.of("income", 1300)));
+    }
+
+    @Test
+    void results_areKeyedByPublishedVersion() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(10, 10, Duration.ofMinutes(1), Set.of());
+        EvaluationPlan published = plan("2026-01-01T00:00:00Z", libraryCheck("P-age", Map.of("minAge", 65), false));
+        Situation situation = cache.situationOf(published, Map.of("income", 1200));
+
+        cache.putResults(published, situation, Map.of("benefit-1", Map.of("result", EvaluationResult.TRUE)));
+
+        assertTrue(cache.getResults(published, situation).isPresent());
+        EvaluationPlan republished = plan("2026-02-01T00:00:00Z", published.benefits().get(0).checks().toArray(PlannedCheck[]::new));
+        assertTrue(cache.getResults(republished, situation).isEmpty());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals(1, cache.getStats().misses());
+    }
+
+    @Test
+    void evaluationDate_isOnlyPartOfTheKeyWhenAsOfDateDefaults() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(10, 10, Duration.ofMinutes(1), Set.of());
+
+        assertNull(cache.situationOf(plan("v1", libraryCheck("P-age", Map.of(), false)), Map.of()).evaluationDate());
+        assertEquals(LocalDate.now(), cache.situationOf(plan("v1", libraryCheck("P-age", Map.of(), true)), Map.of()).evaluationDate());
+    }
+
+    @Test
+    void checkResults_areSharedByChecksCalledTheSameWay() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(10, 10, Duration.ofMinutes(1), Set.of());
+        Situation situation = new Situation("hash", null);
+        PlannedCheck inFirstBenefit = libraryCheck("P-age", Map.of("minAge", 65), false);
+        PlannedCheck inSecondBenefit = libraryCheck("P-age", Map.of("minAge", 65), false);
+        PlannedCheck otherParameters = libraryCheck("P-age", Map.of("minAge", 18), false);
+
+        cache.putCheck(inFirstBenefit, situation, new CheckEvaluation(EvaluationResult.TRUE, Map.of("minAge", 65), List.of()));
+
+        assertEquals(EvaluationResult.TRUE, cache.getCheck(inSecondBenefit, situation).orElseThrow().result());
+        assertTrue(cache.getCheck(otherParameters, situation).isEmpty());
+    }
+
+    @Test
+    void expiredEntries_areNotServed() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(10, 10, Duration.ZERO, Set.of());
+        EvaluationPlan published = plan("v1", libraryCheck("P-age", Map.of(), false));
+        Situation situation = new Situation("hash", null);
+
+        cache.putResults(published, situation, Map.of());
+
+        assertTrue(cache.getResults(published, situation).isEmpty());
+    }
+
+    @Test
+    void invalidateScreener_andOptOut() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(10, 10, Duration.ofMinutes(1), Set.of("screener-2"));
+        EvaluationPlan published = plan("v1", libraryCheck("P-age", Map.of(), false));
+        Situation situation = new Situation("hash", null);
+        cache.putResults(published, situation, Map.of());
+
+        cache.invalidateScreener("screener-1");
+
+        assertTrue(cache.getResults(published, situation).isEmpty());
+        assertTrue(cache.appliesTo("screener-1"));
+        assertFalse(cache.appliesTo("screener-2"));
+    }
+
+    @Test
+    void sizeLimit_evictsLeastRecentlyUsed() throws Exception {
+        EvaluationResultCache cache = new EvaluationResultCache(1, 10, Duration.ofMinutes(1), Set.of());
+        EvaluationPlan published = plan("v1", libraryCheck("P-age", Map.of(), false));
+
+        cache.putResults(published, new Situation("first", null), Map.of());
+        cache.putResults(published, new Situation("second", null), Map.of());
+
+        assertTrue(cache.getResults(published, new Situation("first", null)).isEmpty());
+        assertEquals(1, cache.getStats().size());
+    }
+}
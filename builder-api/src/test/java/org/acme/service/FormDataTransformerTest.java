@@ -281,4 +281,34 @@ public class FormDataTransformerTest {
         assertEquals(50000, result.get("income"));
         assertEquals(3, result.get("householdSize"));
     }
+
+    @Test
+    void transformFormData_returnsSharedReadOnlyViewWithoutMutatingInput() {
+        Map<String, Object> applicantData = new HashMap<>();
+        applicantData.put("dateOfBirth", "1960-01-01");
+        applicantData.put("enrollments", Arrays.asList("SNAP"));
+
+        Map<String, Object> peopleObject = new HashMap<>();
+        peopleObject.put("applicant", applicantData);
+
+        Map<String, Object> customData = new HashMap<>();
+        customData.put("ownsHome", true);
+
+        Map<String, Object> formData = new HashMap<>();
+        formData.put("people", peopleObject);
+        formData.put("custom", customData);
+
+        Map<String, Object> result = FormDataTransformer.transformFormData(formData);
+
+        assertThrows(UnsupportedOperationException.class, () -> result.put("income", 1));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> custom = (Map<String, Object>) result.get("custom");
+        assertEquals(true, custom.get("ownsHome"));
+        assertThrows(UnsupportedOperationException.class, () -> custom.put("ownsHome", false));
+
+        // The caller's form data is left untouched
+        assertSame(peopleObject, formData.get("people"));
+        assertTrue(applicantData.containsKey("enrollments"));
+        assertFalse(applicantData.containsKey("id"));
+    }
 }
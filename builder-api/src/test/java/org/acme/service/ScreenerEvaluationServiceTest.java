@@ -0,0 +1,127 @@
+package org.acme.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.enums.EvaluationResult;
+import org.acme.model.domain.EvaluationPlan;
+import org.acme.model.domain.EvaluationPlan.Aggregation;
+import org.acme.model.domain.EvaluationPlan.CheckKind;
+import org.acme.model.domain.EvaluationPlan.PlannedBenefit;
+import org.acme.model.domain.EvaluationPlan.PlannedCheck;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScreenerEvaluationServiceTest {
+
+    // Records which checks reach library-api, and in which batches, and answers TRUE for all of them
+    private static class RecordingLibraryApi extends LibraryApiService {
+        final List<String> evaluatedCheckIds = new ArrayList<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+        final boolean supportsBatch;
+
+        RecordingLibraryApi() {
+            this(true);
+        }
+
+        RecordingLibraryApi(boolean supportsBatch) {
+            this.supportsBatch = supportsBatch;
+        }
+
+        @Override
+        public synchronized Optional<List<LibraryCheckEvaluation>> evaluateBatch(List<PlannedCheck> plannedChecks, Map<String, Object> inputs) {
+            if (!supportsBatch) {
+                return Optional.empty();
+            }
+            batchSizes.add(plannedChecks.size());
+            plannedChecks.forEach(check -> evaluatedCheckIds.add(check.checkId()));
+            return Optional.of(plannedChecks.stream()
+                .map(check -> new LibraryCheckEvaluation(EvaluationResult.TRUE, check.parameters(), List.of()))
+                .toList());
+        }
+
+        @Override
+        public synchronized LibraryCheckEvaluation evaluatePlannedCheck(PlannedCheck plannedCheck, Map<String, Object> inputs) {
+            batchSizes.add(1);
+            evaluatedCheckIds.add(plannedCheck.checkId());
+            return new LibraryCheckEvaluation(EvaluationResult.TRUE, plannedCheck.parameters(), List.of());
+        }
+    }
+
+    private static PlannedCheck libraryCheck(String checkId, Map<String, Object> parameters) {
+        return new PlannedCheck(
+            checkId, "personMinAge", null, "age", "1.0.0", CheckKind.LIBRARY,
+            "/api/v1/age/personMinAge", null, parameters, false
+        );
+    }
+
+    private static ScreenerEvaluationService service(RecordingLibraryApi libraryApi) {
+        ScreenerEvaluationService service = new ScreenerEvaluationService();
+        service.libraryApi = libraryApi;
+        service.metrics = new EvaluationMetrics(new SimpleMeterRegistry());
+        service.maxConcurrentChecks = 4;
+        service.timeout = Duration.ofSeconds(5);
+        service.libraryBatchSize = 2;
+        return service;
+    }
+
+    private static EvaluationPlan planWithMinAges(int... minAges) {
+        List<PlannedCheck> checks = new ArrayList<>();
+        for (int minAge : minAges) {
+            checks.add(libraryCheck("L-age-personMinAge", Map.of("minAge", minAge)));
+        }
+        return new EvaluationPlan("screener-1", "v1", List.of(
+            new PlannedBenefit("benefit-1", "Rent rebate", Aggregation.ALL_CHECKS, checks)
+        ));
+    }
+
+    @Test
+    void evaluatePlan_evaluatesASharedCheckOncePerRequest() throws Exception {
+        RecordingLibraryApi libraryApi = new RecordingLibraryApi();
+        EvaluationPlan plan = new EvaluationPlan("screener-1", "v1", List.of(
+            new PlannedBenefit("benefit-1", "Rent rebate", Aggregation.ALL_CHECKS, List.of(
+                libraryCheck("L-age-personMinAge", Map.of("minAge", 65))
+            )),
+            new PlannedBenefit("benefit-2", "Tax freeze", Aggregation.ALL_CHECKS, List.of(
+                libraryCheck("L-age-personMinAge", Map.of("minAge", 18)),
+                libraryCheck("L-age-personMinAge", Map.of("minAge", 65))
+            ))
+        ));
+
+        Map<String, Object> results = service(libraryApi).evaluatePlan(plan, Map.of());
+
+        assertEquals(2, libraryApi.evaluatedCheckIds.size());
+        Map<String, Object> secondBenefit = (Map<String, Object>) results.get("benefit-2");
+        Map<String, Object> checkResults = (Map<String, Object>) secondBenefit.get("check_results");
+        assertEquals(List.of("L-age-personMinAge0", "L-age-personMinAge1"), checkResults.keySet().stream().sorted().toList());
+        Map<String, Object> sharedResult = (Map<String, Object>) checkResults.get("L-age-personMinAge1");
+        assertEquals(EvaluationResult.TRUE, sharedResult.get("result"));
+        assertEquals(Map.of("minAge", 65), sharedResult.get("effectiveParameters"));
+    }
+
+    @Test
+    void evaluatePlan_splitsAHostsChecksIntoBatches() throws Exception {
+        RecordingLibraryApi libraryApi = new RecordingLibraryApi();
+
+        service(libraryApi).evaluatePlan(planWithMinAges(18, 21, 55, 60, 65), Map.of());
+
+        assertEquals(5, libraryApi.evaluatedCheckIds.size());
+        assertEquals(List.of(1, 2, 2), libraryApi.batchSizes.stream().sorted().toList());
+    }
+
+    @Test
+    void evaluatePlan_evaluatesChecksIndividuallyWhenTheHostCannotBatch() throws Exception {
+        RecordingLibraryApi libraryApi = new RecordingLibraryApi(false);
+
+        Map<String, Object> results = service(libraryApi).evaluatePlan(planWithMinAges(18, 21, 55), Map.of());
+
+        assertEquals(List.of(1, 1, 1), libraryApi.batchSizes);
+        Map<String, Object> benefit = (Map<String, Object>) results.get("benefit-1");
+        assertEquals(EvaluationResult.TRUE, benefit.get("result"));
+    }
+}
@@ -0,0 +1,63 @@
+package org.codeforphilly.bdt.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body for evaluating several decision services against one shared situation.
+ *
+ * Example:
+ * {
+ *   "situation": { "primaryPersonId": "p1", "people": [...] },
+ *   "items": [
+ *     { "path": "checks/age/person-min-age", "parameters": { "personId": "p1", "minAge": 65 } },
+ *     { "path": "checks/residence/lives-in-philadelphia-pa" }
+ *   ]
+ * }
+ */
+public class BatchEvaluationRequest {
+
+    /**
+     * A single decision service to evaluate, identified by its model path.
+     */
+    public static class Item {
+        private String path;
+        private Map<String, Object> parameters;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Map<String, Object> getParameters() {
+            return parameters;
+        }
+
+        public void setParameters(Map<String, Object> parameters) {
+            this.parameters = parameters;
+        }
+    }
+
+    private Map<String, Object> situation;
+    private List<Item> items = new ArrayList<>();
+
+    public Map<String, Object> getSituation() {
+        return situation;
+    }
+
+    public void setSituation(Map<String, Object> situation) {
+        this.situation = situation;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+}
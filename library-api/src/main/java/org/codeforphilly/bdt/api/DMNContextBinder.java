@@ -0,0 +1,328 @@
+package org.codeforphilly.bdt.api;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Binds request JSON straight to the FEEL values a decision service expects.
+ *
+ * Built once per decision service from its input set schema in dmnDefinitions.json: declared dates are
+ * read as LocalDate and every number as BigDecimal while the request is parsed, so the values can be set
+ * on the DMN context as they are, without binding a generic map first and coercing it with DMNJSONUtils
+ * (or DecisionModel.newContext, which coerces the same way).
+ * Services whose inputs use types this does not cover (times, date-times, durations, unions) get no
+ * binder and keep the generic path.
+ */
+final class DMNContextBinder {
+
+    private enum Kind { ANY, STRING, NUMBER, BOOLEAN, DATE, OBJECT, ARRAY }
+
+    private static final class ValueType {
+        static final ValueType ANY = new ValueType(Kind.ANY);
+
+        final Kind kind;
+        final Map<String, ValueType> properties = new HashMap<>();
+        ValueType items = ANY;
+
+        ValueType(Kind kind) {
+            this.kind = kind;
+        }
+
+        ValueType property(String name) {
+            return kind == Kind.OBJECT ? properties.getOrDefault(name, ANY) : ANY;
+        }
+
+        ValueType items() {
+            return kind == Kind.ARRAY ? items : ANY;
+        }
+    }
+
+    private final Map<String, ValueType> inputs;
+
+    private DMNContextBinder(Map<String, ValueType> inputs) {
+        this.inputs = inputs;
+    }
+
+    /**
+     * Builds the binder of a decision service, or empty when its inputs cannot be fully described (the
+     * service is then bound generically).
+     *
+     * @param inputSchemaRef the service's input set, see DMNSchemaResolver.findInputSchemaRef
+     * @param schemas schema definitions by key
+     */
+    static Optional<DMNContextBinder> create(String inputSchemaRef, Function<String, JsonNode> schemas) {
+        String inputSetKey = refKey(inputSchemaRef);
+        JsonNode inputSet = inputSetKey != null ? schemas.apply(inputSetKey) : null;
+        if (inputSet == null || !inputSet.has("properties")) {
+            return Optional.empty();
+        }
+
+        Map<String, ValueType> compiled = new HashMap<>();
+        Map<String, ValueType> inputs = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> property : iterable(inputSet.get("properties"))) {
+            ValueType type = compile(property.getValue(), schemas, compiled);
+            if (type == null) {
+                return Optional.empty();
+            }
+            inputs.put(property.getKey(), type);
+        }
+
+        return Optional.of(new DMNContextBinder(inputs));
+    }
+
+    /**
+     * Reads the request body, positioned before its first token, into the service's input variables.
+     * Top-level fields that are not inputs of the service are skipped; an empty body binds no inputs.
+     */
+    Map<String, Object> read(JsonParser parser) throws IOException {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return variables;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Request body must be a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            ValueType type = inputs.get(name);
+            if (type == null) {
+                parser.skipChildren();
+            } else {
+                variables.put(name, read(parser, type));
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * Converts already bound variables (e.g. the shared situation of a batch) the same way read does.
+     */
+    Map<String, Object> convert(Map<String, Object> variables) {
+        Map<String, Object> converted = new LinkedHashMap<>();
+        variables.forEach((name, value) -> {
+            ValueType type = inputs.get(name);
+            if (type != null) {
+                converted.put(name, convert(value, type));
+            }
+        });
+        return converted;
+    }
+
+    private static Object read(JsonParser parser, ValueType type) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDecimalValue();
+            case VALUE_STRING:
+                return type.kind == Kind.DATE ? parseDate(parser.getText()) : parser.getText();
+            case START_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.put(name, read(parser, type.property(name)));
+                }
+                return object;
+            case START_ARRAY:
+                List<Object> array = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(read(parser, type.items()));
+                }
+                return array;
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
+    private static Object convert(Object value, ValueType type) {
+        if (value instanceof Map) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, field) -> {
+                String name = String.valueOf(key);
+                object.put(name, convert(field, type.property(name)));
+            });
+            return object;
+        }
+        if (value instanceof Collection) {
+            List<Object> array = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                array.add(convert(element, type.items()));
+            }
+            return array;
+        }
+        if (value instanceof Number) {
+            return toBigDecimal((Number) value);
+        }
+        if (value instanceof String && type.kind == Kind.DATE) {
+            return parseDate((String) value);
+        }
+        return value;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    // Strings that are not ISO dates are left for the model to reject, as the generic coercion does
+    private static Object parseDate(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            return text;
+        }
+    }
+
+    // The value type described by a schema, or null if it is not one this binder handles
+    private static ValueType compile(JsonNode schema, Function<String, JsonNode> schemas, Map<String, ValueType> compiled) {
+        if (schema.has("$ref")) {
+            String key = refKey(schema.get("$ref").asText());
+            if (key == null) {
+                return null;
+            }
+            if (compiled.containsKey(key)) {
+                return compiled.get(key);
+            }
+            JsonNode target = schemas.apply(key);
+            if (target == null) {
+                return null;
+            }
+            if (target.has("properties")) {
+                // Registered before its properties are compiled, so recursive types terminate
+                ValueType object = new ValueType(Kind.OBJECT);
+                compiled.put(key, object);
+                if (!compileProperties(object, target, schemas, compiled)) {
+                    compiled.put(key, null);
+                    return null;
+                }
+                return object;
+            }
+            ValueType type = compile(target, schemas, compiled);
+            compiled.put(key, type);
+            return type;
+        }
+
+        if (schema.has("allOf") || schema.has("anyOf") || schema.has("oneOf")) {
+            return null;
+        }
+        String dmnType = schema.path("x-dmn-type").asText(null);
+        if (dmnType != null && dmnType.startsWith("FEEL:")) {
+            return feelType(dmnType);
+        }
+
+        String type = schema.path("type").asText(null);
+        if (type == null) {
+            return ValueType.ANY;
+        }
+        switch (type) {
+            case "boolean":
+                return new ValueType(Kind.BOOLEAN);
+            case "number":
+            case "integer":
+                return new ValueType(Kind.NUMBER);
+            case "string":
+                String format = schema.path("format").asText(null);
+                if (format == null) {
+                    return new ValueType(Kind.STRING);
+                }
+                return "date".equals(format) ? new ValueType(Kind.DATE) : null;
+            case "array":
+                ValueType array = new ValueType(Kind.ARRAY);
+                if (schema.has("items")) {
+                    array.items = compile(schema.get("items"), schemas, compiled);
+                    if (array.items == null) {
+                        return null;
+                    }
+                }
+                return array;
+            case "object":
+                if (!schema.has("properties")) {
+                    return ValueType.ANY; // a FEEL context of any shape
+                }
+                ValueType object = new ValueType(Kind.OBJECT);
+                return compileProperties(object, schema, schemas, compiled) ? object : null;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean compileProperties(ValueType object, JsonNode schema, Function<String, JsonNode> schemas,
+                                             Map<String, ValueType> compiled) {
+        for (Map.Entry<String, JsonNode> property : iterable(schema.get("properties"))) {
+            ValueType type = compile(property.getValue(), schemas, compiled);
+            if (type == null) {
+                return false;
+            }
+            object.properties.put(property.getKey(), type);
+        }
+        return true;
+    }
+
+    private static ValueType feelType(String dmnType) {
+        switch (dmnType) {
+            case "FEEL:string":
+                return new ValueType(Kind.STRING);
+            case "FEEL:number":
+                return new ValueType(Kind.NUMBER);
+            case "FEEL:boolean":
+                return new ValueType(Kind.BOOLEAN);
+            case "FEEL:date":
+                return new ValueType(Kind.DATE);
+            case "FEEL:context":
+            case "FEEL:Any":
+                return ValueType.ANY;
+            default:
+                return null;
+        }
+    }
+
+    private static String refKey(String ref) {
+        if (ref == null) {
+            return null;
+        }
+        if (ref.startsWith("#/components/schemas/")) {
+            return ref.substring("#/components/schemas/".length());
+        }
+        if (ref.startsWith("#/definitions/")) {
+            return ref.substring("#/definitions/".length());
+        }
+        return null;
+    }
+
+    private static Iterable<Map.Entry<String, JsonNode>> iterable(JsonNode node) {
+        return node::fields;
+    }
+}
@@ -0,0 +1,110 @@
+package org.codeforphilly.bdt.api;
+
+import io.quarkus.runtime.Startup;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.Application;
+import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The declared variables and DMNContextBinder of every exposed decision service ({ModelName}Service), by
+ * model path. Built once at startup from dmnDefinitions.json and the DMN models.
+ *
+ * bdt.context-binder.enabled only switches the binders off; the declared variables, which shape every
+ * response, are always resolved.
+ */
+@Startup
+@ApplicationScoped
+public class DMNContextBinders {
+
+    private static final Logger log = LoggerFactory.getLogger(DMNContextBinders.class);
+
+    @ConfigProperty(name = "bdt.context-binder.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    Application application;
+
+    @Inject
+    ModelRegistry modelRegistry;
+
+    @Inject
+    DMNSchemaResolver schemaResolver;
+
+    private volatile Map<String, DMNContextBinder> bindersByPath = Map.of();
+    private volatile Map<String, Set<String>> declaredVariablesByPath = Map.of();
+
+    @PostConstruct
+    void initialize() {
+        DecisionModels decisionModels = application.get(DecisionModels.class);
+        Map<String, DMNContextBinder> binders = new HashMap<>();
+        Map<String, Set<String>> declaredVariables = new HashMap<>();
+        int services = 0;
+        for (ModelInfo model : modelRegistry.getAllModels().values()) {
+            String serviceName = model.getModelName() + "Service";
+            if (!model.getDecisionServices().contains(serviceName)) {
+                continue;
+            }
+            services++;
+            try {
+                DecisionModel decision = decisionModels.getDecisionModel(model.getNamespace(), model.getModelName());
+                Set<String> declared = DecisionServiceOutput.declaredVariables(decision.getDMNModel(), serviceName);
+                if (declared != null) {
+                    declaredVariables.put(model.getPath(), declared);
+                } else {
+                    log.warn("Could not resolve the variables of {}/{}, it returns the whole DMN context",
+                            model.getModelName(), serviceName);
+                }
+                if (!enabled) {
+                    continue;
+                }
+
+                Optional<DMNContextBinder> binder = DMNContextBinder.create(
+                        schemaResolver.findInputSchemaRef(model.getModelName(), serviceName),
+                        schemaResolver::getSchema
+                );
+                if (binder.isPresent()) {
+                    binders.put(model.getPath(), binder.get());
+                } else {
+                    log.debug("No context binder for {}/{}, it is bound generically", model.getModelName(), serviceName);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to build context binder for {}/{}, it is bound generically",
+                        model.getModelName(), serviceName, e);
+            }
+        }
+
+        this.bindersByPath = binders;
+        this.declaredVariablesByPath = declaredVariables;
+        if (enabled) {
+            log.info("Built DMN context binders for {} of {} decision services", binders.size(), services);
+        } else {
+            log.info("DMN context binders disabled, requests are bound generically");
+        }
+    }
+
+    /**
+     * The binder of the decision service at the given model path, or null if it is bound generically.
+     */
+    DMNContextBinder get(String path) {
+        return bindersByPath.get(path);
+    }
+
+    /**
+     * The declared inputs and outputs of the decision service at the given model path, or null if they
+     * could not be resolved from the model.
+     */
+    Set<String> declaredVariables(String path) {
+        return declaredVariablesByPath.get(path);
+    }
+}
@@ -20,9 +20,17 @@ public class DMNSchemaResolver {
     private static final Logger LOG = Logger.getLogger(DMNSchemaResolver.class.getName());
     private static final String DMN_DEFINITIONS_PATH = "/META-INF/resources/dmnDefinitions.json";
 
+    private static final String[] SET_MARKERS = {"InputSet", "OutputSet"};
+
     private final Map<String, JsonNode> schemas;
     private final JsonNode rootNode;
 
+    /**
+     * Schema keys by every suffix starting at "InputSet" or "OutputSet" (e.g. "InputSetPersonMinAge"),
+     * so looking up the input/output set of a model is a map lookup rather than a scan of all keys.
+     */
+    private final Map<String, String> keysBySetSuffix;
+
     public DMNSchemaResolver() {
         this.schemas = new HashMap<>();
         this.rootNode = loadDmnDefinitions();
@@ -33,6 +41,29 @@ public class DMNSchemaResolver {
             });
             LOG.info("Loaded " + schemas.size() + " DMN type schemas from dmnDefinitions.json");
         }
+        this.keysBySetSuffix = indexSetSuffixes(schemas.keySet());
+    }
+
+    private static Map<String, String> indexSetSuffixes(Set<String> schemaKeys) {
+        Map<String, String> index = new HashMap<>();
+        // Sorted so that a suffix shared by several keys always resolves to the same one
+        for (String key : new TreeSet<>(schemaKeys)) {
+            for (String marker : SET_MARKERS) {
+                for (int i = key.indexOf(marker); i >= 0; i = key.indexOf(marker, i + 1)) {
+                    index.putIfAbsent(key.substring(i), key);
+                }
+            }
+        }
+        return index;
+    }
+
+    // The schema key ending with the given "InputSet..."/"OutputSet..." suffix, as a component ref
+    private String findSetSchemaRef(String exactSuffix, String fallbackSuffix) {
+        String key = keysBySetSuffix.get(exactSuffix);
+        if (key == null) {
+            key = keysBySetSuffix.get(fallbackSuffix);
+        }
+        return key != null ? "#/components/schemas/" + key : null;
     }
 
     private JsonNode loadDmnDefinitions() {
@@ -54,23 +85,8 @@ public class DMNSchemaResolver {
      * Pattern: ns{N}InputSet{ModelName}DS{ServiceName}
      */
     public String findInputSchemaRef(String modelName, String serviceName) {
-        // Try to find exact match first
-        String exactPattern = "InputSet" + modelName + "DS" + serviceName;
-        Optional<String> match = schemas.keySet().stream()
-            .filter(key -> key.endsWith(exactPattern))
-            .findFirst();
-
-        if (match.isPresent()) {
-            return "#/components/schemas/" + match.get();
-        }
-
-        // Fallback: try just the model name (for simple decision models)
-        String simplePattern = "InputSet" + modelName;
-        match = schemas.keySet().stream()
-            .filter(key -> key.endsWith(simplePattern))
-            .findFirst();
-
-        return match.map(s -> "#/components/schemas/" + s).orElse(null);
+        // Exact match first, falling back to just the model name (for simple decision models)
+        return findSetSchemaRef("InputSet" + modelName + "DS" + serviceName, "InputSet" + modelName);
     }
 
     /**
@@ -78,23 +94,8 @@ public class DMNSchemaResolver {
      * Pattern: ns{N}OutputSet{ModelName}DS{ServiceName}
      */
     public String findOutputSchemaRef(String modelName, String serviceName) {
-        // Try to find exact match first
-        String exactPattern = "OutputSet" + modelName + "DS" + serviceName;
-        Optional<String> match = schemas.keySet().stream()
-            .filter(key -> key.endsWith(exactPattern))
-            .findFirst();
-
-        if (match.isPresent()) {
-            return "#/components/schemas/" + match.get();
-        }
-
-        // Fallback: try just the model name
-        String simplePattern = "OutputSet" + modelName;
-        match = schemas.keySet().stream()
-            .filter(key -> key.endsWith(simplePattern))
-            .findFirst();
-
-        return match.map(s -> "#/components/schemas/" + s).orElse(null);
+        // Exact match first, falling back to just the model name
+        return findSetSchemaRef("OutputSet" + modelName + "DS" + serviceName, "OutputSet" + modelName);
     }
 
     /**
@@ -0,0 +1,130 @@
+package org.codeforphilly.bdt.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.ast.DMNNode;
+import org.kie.dmn.api.core.ast.DecisionServiceNode;
+import org.kie.dmn.model.api.DMNElementReference;
+import org.kie.dmn.model.api.DecisionService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Response body of a decision service: its declared inputs and output decisions, taken from the evaluated
+ * DMN context.
+ *
+ * The declared variables come from the decision service in the DMN model, not from how the request was
+ * bound, so a service answers with the same shape whether or not it has a DMNContextBinder.
+ * Still a map, so metrics and batches read it as before, but written directly from the FEEL values rather
+ * than through Jackson's generic map serialization.
+ */
+@JsonSerialize(using = DecisionServiceOutput.Serializer.class)
+final class DecisionServiceOutput extends LinkedHashMap<String, Object> {
+
+    static DecisionServiceOutput of(Set<String> declaredVariables, Map<String, Object> dmnContext) {
+        DecisionServiceOutput output = new DecisionServiceOutput();
+        for (String name : declaredVariables) {
+            if (dmnContext.containsKey(name)) {
+                output.put(name, dmnContext.get(name));
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Names of the input data, input decisions and output decisions of a decision service, in that order,
+     * or null if the service or one of its references cannot be resolved.
+     */
+    static Set<String> declaredVariables(DMNModel model, String serviceName) {
+        for (DecisionServiceNode node : model.getDecisionServices()) {
+            if (!node.getName().equals(serviceName)) {
+                continue;
+            }
+            DecisionService service = node.getDecisionService();
+            Set<String> names = new LinkedHashSet<>();
+            if (addNames(names, service.getInputData(), model, model::getInputById)
+                    && addNames(names, service.getInputDecision(), model, model::getDecisionById)
+                    && addNames(names, service.getOutputDecision(), model, model::getDecisionById)) {
+                return names;
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean addNames(Set<String> names, List<DMNElementReference> references, DMNModel model,
+                                    Function<String, ? extends DMNNode> byId) {
+        for (DMNElementReference reference : references) {
+            DMNNode node = byId.apply(localId(model, reference.getHref()));
+            if (node == null) {
+                return false;
+            }
+            names.add(node.getName());
+        }
+        return true;
+    }
+
+    // "#id" for elements of the model itself, "namespace#id" for imported ones
+    private static String localId(DMNModel model, String href) {
+        int hash = href.indexOf('#');
+        if (hash <= 0 || href.substring(0, hash).equals(model.getNamespace())) {
+            return href.substring(hash + 1);
+        }
+        return href;
+    }
+
+    static final class Serializer extends StdSerializer<DecisionServiceOutput> {
+
+        public Serializer() {
+            super(DecisionServiceOutput.class);
+        }
+
+        @Override
+        public void serialize(DecisionServiceOutput output, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            write(output, gen, provider);
+        }
+
+        private static void write(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else if (value instanceof BigDecimal) {
+                gen.writeNumber((BigDecimal) value);
+            } else if (value instanceof Boolean) {
+                gen.writeBoolean((Boolean) value);
+            } else if (value instanceof String) {
+                gen.writeString((String) value);
+            } else if (value instanceof LocalDate) {
+                gen.writeString(value.toString());
+            } else if (value instanceof Map) {
+                gen.writeStartObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    gen.writeFieldName(String.valueOf(entry.getKey()));
+                    write(entry.getValue(), gen, provider);
+                }
+                gen.writeEndObject();
+            } else if (value instanceof Collection) {
+                gen.writeStartArray();
+                for (Object element : (Collection<?>) value) {
+                    write(element, gen, provider);
+                }
+                gen.writeEndArray();
+            } else {
+                // Other FEEL values (times, durations, ...) are written as Jackson always wrote them
+                provider.defaultSerializeValue(value, gen);
+            }
+        }
+    }
+}
@@ -29,6 +29,8 @@ import java.util.logging.Logger;
  * parameterized path, making the API more discoverable and providing proper type examples.
  *
  * Note: This is registered via mp.openapi.filter in application.properties, not as a CDI bean.
+ * The finished document is handed to OpenAPIDocumentCache, which serves later requests from memory,
+ * so the filter normally runs once per application start.
  */
 public class DynamicDMNOpenAPIFilter implements OASFilter {
     private static final Logger LOG = Logger.getLogger(DynamicDMNOpenAPIFilter.class.getName());
@@ -36,6 +38,7 @@ public class DynamicDMNOpenAPIFilter implements OASFilter {
 
     private ModelRegistry modelRegistry;
     private DMNSchemaResolver schemaResolver;
+    private OpenAPIDocumentCache documentCache;
 
     @Override
     public void filterOpenAPI(OpenAPI openAPI) {
@@ -48,6 +51,9 @@ public class DynamicDMNOpenAPIFilter implements OASFilter {
         if (schemaResolver == null) {
             schemaResolver = CDI.current().select(DMNSchemaResolver.class).get();
         }
+        if (documentCache == null) {
+            documentCache = CDI.current().select(OpenAPIDocumentCache.class).get();
+        }
 
         // Ensure components exist
         if (openAPI.getComponents() == null) {
@@ -88,6 +94,8 @@ public class DynamicDMNOpenAPIFilter implements OASFilter {
 
         LOG.info("OpenAPI spec filtering complete. Total paths: " +
                  (openAPI.getPaths() != null ? openAPI.getPaths().getPathItems().size() : 0));
+
+        documentCache.store(openAPI);
     }
 
     /**
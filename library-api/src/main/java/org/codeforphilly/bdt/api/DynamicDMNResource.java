@@ -1,5 +1,12 @@
 package org.codeforphilly.bdt.api;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.codeforphilly.bdt.functions.DecisionServiceInvoker;
+import org.kie.dmn.api.core.DMNContext;
 import org.kie.dmn.api.core.DMNResult;
 import org.kie.kogito.Application;
 import org.kie.kogito.decision.DecisionModel;
@@ -13,7 +20,14 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Dynamic REST resource that provides clean paths for all DMN decision services.
@@ -21,6 +35,12 @@ import java.util.Map;
  *
  * Endpoint pattern: POST /api/v1/{modelName}/{serviceName}
  * Example: POST /api/v1/PersonMinAge/PersonMinAgeService
+ *
+ * Batch pattern: POST /api/v1/_batch evaluates several models against one shared situation.
+ *
+ * Requests are bound with the service's DMNContextBinder when it has one, parsing the body straight into
+ * FEEL values; other services are bound into a generic map and coerced by DMNJSONUtils. Either way the
+ * response holds only the service's declared inputs and outputs (see DecisionServiceOutput).
  */
 @Path("/api/v1")
 @Produces(MediaType.APPLICATION_JSON)
@@ -29,26 +49,156 @@ public class DynamicDMNResource {
 
     private static final Logger log = LoggerFactory.getLogger(DynamicDMNResource.class);
 
+    static final String EVALUATION_TIMER = "bdt.decision.evaluation";
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {};
+
+    /**
+     * The inputs of one evaluation, bound to a DMN context for the decision service being evaluated.
+     */
+    @FunctionalInterface
+    private interface RequestInputs {
+        DMNContext bind(DecisionModel decision, String serviceName, DMNContextBinder binder) throws IOException;
+    }
+
     @Inject
     Application application;
 
     @Inject
     ModelRegistry modelRegistry;
 
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    DMNContextBinders contextBinders;
+
+    @Inject
+    ObjectMapper objectMapper;
+
     /**
      * Evaluate a decision service for a given model using path-based routing.
      * The service name is inferred as {modelName}Service.
      *
      * @param path the path to the DMN model (e.g., "age/PersonMinAge", "checks/test/TestOne")
-     * @param variables the input variables (must include "situation" and "parameters" as per DMN model)
+     * @param body the JSON input variables (must include "situation" and "parameters" as per DMN model)
      * @return the decision result or error response
      */
     @POST
     @Path("/{path:.+}")
     public Response evaluateDecisionService(
             @PathParam("path") String path,
-            Map<String, Object> variables) {
+            InputStream body) {
+        return evaluate(path, bodyInputs(body));
+    }
+
+    /**
+     * Evaluate several decision services that share a single situation in one round-trip.
+     * Each item is evaluated exactly as POST /api/v1/{path} would evaluate it; a failing item
+     * does not fail the batch, its status and error body are reported in its result entry.
+     *
+     * @param request the shared situation and the list of {path, parameters} items
+     * @return {"results": [{"path", "status", "body"}, ...]} in the same order as the request items
+     */
+    @POST
+    @Path("/_batch")
+    public Response evaluateBatch(BatchEvaluationRequest request) {
+        if (request == null || request.getItems() == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "Batch request must include 'items'"))
+                    .build();
+        }
+
+        log.debug("Evaluating batch of {} decision services", request.getItems().size());
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        // One scope for the whole batch: items share the situation, so their nested invocations can be reused
+        try (DecisionServiceInvoker.Scope scope = DecisionServiceInvoker.openScope()) {
+            for (BatchEvaluationRequest.Item item : request.getItems()) {
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("situation", request.getSituation());
+                if (item.getParameters() != null) {
+                    variables.put("parameters", item.getParameters());
+                }
+
+                Response itemResponse = item.getPath() != null
+                        ? evaluate(item.getPath(), mapInputs(variables))
+                        : Response.status(Response.Status.BAD_REQUEST)
+                                .entity(Map.of("error", "Batch item must include 'path'"))
+                                .build();
 
+                Map<String, Object> itemResult = new LinkedHashMap<>();
+                itemResult.put("path", item.getPath());
+                itemResult.put("status", itemResponse.getStatus());
+                itemResult.put("body", itemResponse.getEntity());
+                results.add(itemResult);
+            }
+        }
+
+        return Response.ok(Map.of("results", results)).build();
+    }
+
+    /**
+     * Evaluates one decision service and records its latency, tagged by model path, HTTP status and,
+     * for checks, the check result.
+     */
+    private Response evaluate(String path, RequestInputs inputs) {
+        Timer.Sample sample = Timer.start(registry);
+        Response response;
+        try (DecisionServiceInvoker.Scope scope = DecisionServiceInvoker.openScope()) {
+            response = evaluateModel(path, inputs);
+        }
+        // Unknown paths are client input, so they share one tag value to keep the path tag bounded
+        String pathTag = response.getStatus() == Response.Status.NOT_FOUND.getStatusCode() ? "unknown" : path;
+        sample.stop(registry.timer(
+                EVALUATION_TIMER,
+                "path", pathTag,
+                "status", String.valueOf(response.getStatus()),
+                "result", checkResultTag(response)
+        ));
+        return response;
+    }
+
+    // The body is only parsed once the service, and so its binder, is known
+    private RequestInputs bodyInputs(InputStream body) {
+        return (decision, serviceName, binder) -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                if (binder != null) {
+                    return boundContext(decision, binder.read(parser));
+                }
+                Map<String, Object> variables = parser.nextToken() != null ? parser.readValueAs(VARIABLES_TYPE) : null;
+                return DMNJSONUtils.ctx(decision, variables != null ? variables : new HashMap<>(), serviceName);
+            }
+        };
+    }
+
+    private static RequestInputs mapInputs(Map<String, Object> variables) {
+        return (decision, serviceName, binder) -> binder != null
+                ? boundContext(decision, binder.convert(variables))
+                : DMNJSONUtils.ctx(decision, variables, serviceName);
+    }
+
+    // Set on an empty context: newContext(variables) would coerce the already bound values all over again
+    static DMNContext boundContext(DecisionModel decision, Map<String, Object> variables) {
+        DMNContext context = decision.newContext(Map.of());
+        variables.forEach(context::set);
+        return context;
+    }
+
+    private static String checkResultTag(Response response) {
+        if (response.getStatus() != Response.Status.OK.getStatusCode()
+                || !(response.getEntity() instanceof Map)
+                || !((Map<?, ?>) response.getEntity()).containsKey("checkResult")) {
+            return "none";
+        }
+        Object checkResult = ((Map<?, ?>) response.getEntity()).get("checkResult");
+        if (checkResult == null) {
+            return "UNABLE_TO_DETERMINE";
+        }
+        return checkResult.toString().toUpperCase();
+    }
+
+    private Response evaluateModel(String path, RequestInputs inputs) {
         log.debug("Evaluating decision service for path: {}", path);
 
         // 1. Look up model metadata by path
@@ -108,13 +258,22 @@ public class DynamicDMNResource {
                     .build();
         }
 
-        // 4. Evaluate the decision service
+        // 4. Bind the inputs and evaluate the decision service
+        DMNContextBinder binder = contextBinders.get(path);
         DMNResult dmnResult;
         try {
             dmnResult = decision.evaluateDecisionService(
-                    DMNJSONUtils.ctx(decision, variables, serviceName),
+                    inputs.bind(decision, serviceName, binder),
                     serviceName
             );
+        } catch (IOException e) {
+            log.debug("Invalid request body for {}/{}: {}", modelName, serviceName, e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of(
+                            "error", "Invalid request body",
+                            "message", e.getMessage()
+                    ))
+                    .build();
         } catch (Exception e) {
             log.error("Error evaluating decision service: {}/{}", modelName, serviceName, e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -143,8 +302,12 @@ public class DynamicDMNResource {
         // 7. Return successful result
         log.debug("Decision service {}/{} evaluated successfully", modelName, serviceName);
 
-        // Return the DMN context (contains all output variables)
-        return Response.ok(result.getDmnContext()).build();
+        // Return the service's declared inputs and outputs from the DMN context
+        Map<String, Object> dmnContext = result.getDmnContext();
+        Set<String> declaredVariables = contextBinders.declaredVariables(path);
+        return Response.ok(declaredVariables != null
+                ? DecisionServiceOutput.of(declaredVariables, dmnContext)
+                : dmnContext).build();
     }
 
 }
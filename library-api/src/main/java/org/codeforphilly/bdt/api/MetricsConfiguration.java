@@ -0,0 +1,40 @@
+package org.codeforphilly.bdt.api;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publishes the SLO buckets configured in evaluation.metrics.slo on the decision evaluation
+ * latency histograms exposed at /q/metrics.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    @ConfigProperty(name = "evaluation.metrics.slo", defaultValue = "PT0.001S,PT0.005S,PT0.01S,PT0.025S,PT0.05S,PT0.1S,PT0.25S,PT0.5S,PT1S")
+    List<Duration> slo;
+
+    @Produces
+    @Singleton
+    public MeterFilter evaluationSloFilter() {
+        double[] sloNanos = slo.stream().mapToDouble(Duration::toNanos).toArray();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals(DynamicDMNResource.EVALUATION_TIMER)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(sloNanos)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
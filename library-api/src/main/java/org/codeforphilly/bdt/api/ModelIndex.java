@@ -0,0 +1,200 @@
+package org.codeforphilly.bdt.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the DMN models on the classpath: name, namespace, path, description, decision services
+ * and decisions of each model, read from the DMN files themselves.
+ *
+ * The index is generated at build time (process-classes, see pom.xml) into
+ * META-INF/bdt/dmn-model-index.json, so ModelRegistry can load it at boot instead of scanning and
+ * parsing every DMN file. Generating it also validates that model names are unique, failing the build
+ * otherwise.
+ *
+ * Usage: ModelIndex &lt;classes directory&gt; &lt;index file&gt;
+ */
+public final class ModelIndex {
+
+    public static final String RESOURCE = "META-INF/bdt/dmn-model-index.json";
+
+    private static final String DMN_MODEL_NAMESPACE = "http://www.omg.org/spec/DMN/20180521/MODEL/";
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<List<Map<String, Object>>> INDEX_TYPE = new TypeReference<>() {};
+
+    private ModelIndex() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ModelIndex <classes directory> <index file>");
+        }
+        Path root = Paths.get(args[0]);
+        Path indexFile = Paths.get(args[1]);
+
+        List<ModelInfo> models = scan(root);
+        validateUniqueNames(models);
+        write(models, indexFile);
+        System.out.println("Indexed " + models.size() + " DMN models into " + indexFile);
+    }
+
+    /**
+     * Reads every .dmn file under the root, parsing each file once.
+     * Paths are relative to the root, excluding the .dmn extension.
+     */
+    public static List<ModelInfo> scan(Path root) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        List<Path> dmnFiles;
+        try (Stream<Path> paths = Files.walk(root)) {
+            dmnFiles = paths.filter(path -> path.toString().endsWith(".dmn")).sorted().collect(Collectors.toList());
+        }
+
+        List<ModelInfo> models = new ArrayList<>();
+        for (Path dmnFile : dmnFiles) {
+            Document doc;
+            try (InputStream is = Files.newInputStream(dmnFile)) {
+                doc = builder.parse(is);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to parse DMN file: " + dmnFile, e);
+            }
+            Element definitions = doc.getDocumentElement();
+            if (definitions == null || !definitions.hasAttribute("name")) {
+                continue;
+            }
+            String relativePath = root.relativize(dmnFile).toString();
+            relativePath = relativePath.substring(0, relativePath.length() - 4); // remove .dmn
+
+            models.add(new ModelInfo(
+                definitions.getAttribute("namespace"),
+                definitions.getAttribute("name"),
+                childNames(definitions, "decisionService"),
+                childNames(definitions, "decision"),
+                relativePath,
+                description(doc)
+            ));
+        }
+        return models;
+    }
+
+    /**
+     * Loads the index generated at build time, or empty if the classpath has none.
+     */
+    public static Optional<List<ModelInfo>> load(ClassLoader classLoader) throws IOException {
+        try (InputStream is = classLoader.getResourceAsStream(RESOURCE)) {
+            if (is == null) {
+                return Optional.empty();
+            }
+            List<ModelInfo> models = new ArrayList<>();
+            for (Map<String, Object> entry : mapper.readValue(is, INDEX_TYPE)) {
+                models.add(new ModelInfo(
+                    (String) entry.get("namespace"),
+                    (String) entry.get("name"),
+                    stringList(entry.get("decisionServices")),
+                    stringList(entry.get("decisions")),
+                    (String) entry.get("path"),
+                    (String) entry.get("description")
+                ));
+            }
+            return Optional.of(models);
+        }
+    }
+
+    static void write(List<ModelInfo> models, Path indexFile) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (ModelInfo model : models) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", model.getModelName());
+            entry.put("namespace", model.getNamespace());
+            entry.put("path", model.getPath());
+            entry.put("description", model.getDescription());
+            entry.put("decisionServices", model.getDecisionServices());
+            entry.put("decisions", model.getDecisions());
+            entries.add(entry);
+        }
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(indexFile.toFile(), entries);
+    }
+
+    /**
+     * Fails if two DMN files declare the same model name.
+     *
+     * @throws IllegalStateException listing the files of every duplicated name
+     */
+    public static void validateUniqueNames(List<ModelInfo> models) {
+        Map<String, List<String>> nameToFiles = new LinkedHashMap<>();
+        for (ModelInfo model : models) {
+            String namespace = model.getNamespace();
+            String shortNamespace = namespace.substring(namespace.lastIndexOf('/') + 1);
+            nameToFiles.computeIfAbsent(model.getModelName(), k -> new ArrayList<>())
+                       .add(model.getPath() + " (namespace: " + shortNamespace + ")");
+        }
+
+        List<String> duplicateErrors = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : nameToFiles.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                duplicateErrors.add(
+                    "  - Model name '" + entry.getKey() + "' found in:\n    " +
+                    String.join("\n    ", entry.getValue())
+                );
+            }
+        }
+
+        if (!duplicateErrors.isEmpty()) {
+            throw new IllegalStateException("Duplicate DMN model names detected:\n" +
+                String.join("\n", duplicateErrors) +
+                "\n\nEach DMN model must have a unique 'name' attribute in its <dmn:definitions> element.");
+        }
+    }
+
+    // Names of the elements of the given kind declared directly in <dmn:definitions>, not imported ones
+    private static List<String> childNames(Element definitions, String localName) {
+        List<String> names = new ArrayList<>();
+        NodeList children = definitions.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if (child instanceof Element && localName.equals(child.getLocalName())) {
+                names.add(((Element) child).getAttribute("name"));
+            }
+        }
+        return names;
+    }
+
+    // The first <dmn:description> in the file, or null if missing or blank
+    private static String description(Document doc) {
+        NodeList descNodes = doc.getDocumentElement().getElementsByTagNameNS(DMN_MODEL_NAMESPACE, "description");
+        if (descNodes.getLength() == 0) {
+            return null;
+        }
+        String description = descNodes.item(0).getTextContent();
+        return (description != null && !description.trim().isEmpty()) ? description.trim() : null;
+    }
+
+    private static List<String> stringList(Object value) {
+        if (!(value instanceof List)) {
+            return List.of();
+        }
+        return ((List<?>) value).stream().map(String::valueOf).collect(Collectors.toList());
+    }
+}
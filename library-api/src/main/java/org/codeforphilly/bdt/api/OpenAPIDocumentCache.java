@@ -0,0 +1,166 @@
+package org.codeforphilly.bdt.api;
+
+import io.quarkus.arc.Unremovable;
+import io.smallrye.openapi.runtime.io.Format;
+import io.smallrye.openapi.runtime.io.OpenApiSerializer;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Serves the OpenAPI document from memory once it has been generated.
+ *
+ * With quarkus.smallrye-openapi.always-run-filter Quarkus would run DynamicDMNOpenAPIFilter, rebuilding
+ * every DMN path, schema and example, and serialize the result on each request to /q/openapi. The filter
+ * stores the finished document here the first time it runs; from then on this route answers ahead of the
+ * Quarkus handler with the stored bytes and an ETag, or 304 Not Modified when If-None-Match matches.
+ * The DMN models only change with a restart (or a dev mode reload), which starts with an empty cache.
+ */
+@ApplicationScoped
+@Unremovable
+public class OpenAPIDocumentCache {
+    private static final Logger LOG = Logger.getLogger(OpenAPIDocumentCache.class.getName());
+
+    // Same CORS headers as the Quarkus OpenAPI handler
+    private static final Map<String, String> RESPONSE_HEADERS = Map.of(
+        "Access-Control-Allow-Origin", "*",
+        "Access-Control-Allow-Credentials", "true",
+        "Access-Control-Allow-Methods", "GET, HEAD, OPTIONS",
+        "Access-Control-Allow-Headers", "Content-Type, Authorization",
+        "Access-Control-Max-Age", "86400"
+    );
+
+    record Document(Buffer body, String etag) {}
+
+    @ConfigProperty(name = "quarkus.http.non-application-root-path", defaultValue = "q")
+    String nonApplicationRootPath;
+
+    @ConfigProperty(name = "quarkus.smallrye-openapi.path", defaultValue = "openapi")
+    String openApiPath;
+
+    private volatile Map<Format, Document> documents;
+
+    void registerRoute(@Observes Router router) {
+        // Ordered before the Quarkus handler, which still serves the document until it is cached
+        router.route(documentPath()).order(Integer.MIN_VALUE).handler(this::handle);
+    }
+
+    /**
+     * Serializes the final document in every format the endpoint serves and keeps it.
+     * Called by DynamicDMNOpenAPIFilter once it has added the DMN endpoints.
+     */
+    public void store(OpenAPI openAPI) {
+        Map<Format, Document> serialized = new EnumMap<>(Format.class);
+        try {
+            for (Format format : Format.values()) {
+                byte[] body = OpenApiSerializer.serialize(openAPI, format).getBytes(StandardCharsets.UTF_8);
+                serialized.put(format, new Document(Buffer.buffer(body), etag(body)));
+            }
+        } catch (IOException e) {
+            LOG.warning("Failed to serialize the OpenAPI document, it will be generated per request: " + e.getMessage());
+            return;
+        }
+        documents = serialized;
+        LOG.info("OpenAPI document cached (" + serialized.get(Format.JSON).body().length() + " bytes as JSON)");
+    }
+
+    /**
+     * The cached document in the given format, or null until the document has been generated.
+     */
+    Document get(Format format) {
+        Map<Format, Document> cached = documents;
+        return cached != null ? cached.get(format) : null;
+    }
+
+    private void handle(RoutingContext ctx) {
+        HttpServerRequest request = ctx.request();
+        if (request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD) {
+            ctx.next();
+            return;
+        }
+        Format format = requestedFormat(ctx);
+        Document document = get(format);
+        if (document == null) {
+            ctx.next();
+            return;
+        }
+
+        RESPONSE_HEADERS.forEach(ctx.response()::putHeader);
+        ctx.response().putHeader(HttpHeaders.ETAG, document.etag());
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), document.etag())) {
+            ctx.response().setStatusCode(304).end();
+            return;
+        }
+        ctx.response().putHeader(HttpHeaders.CONTENT_TYPE, format.getMimeType() + ";charset=UTF-8");
+        if (request.method() == HttpMethod.HEAD) {
+            ctx.response().putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(document.body().length())).end();
+        } else {
+            ctx.response().end(document.body());
+        }
+    }
+
+    // Negotiated as the Quarkus handler does: YAML unless JSON is accepted or requested with ?format=json
+    private static Format requestedFormat(RoutingContext ctx) {
+        String accept = ctx.request().getHeader(HttpHeaders.ACCEPT);
+        List<String> formatParams = ctx.queryParam("format");
+        Format format = Format.YAML;
+        if (accept != null && accept.contains(Format.JSON.getMimeType())) {
+            format = Format.JSON;
+        }
+        if (!formatParams.isEmpty() && formatParams.get(0).equalsIgnoreCase(Format.JSON.toString())) {
+            format = Format.JSON;
+        }
+        return format;
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // weak comparison, as If-None-Match requires
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Relative paths are resolved under the non-application root, as Quarkus does
+    private String documentPath() {
+        if (openApiPath.startsWith("/")) {
+            return openApiPath;
+        }
+        String root = nonApplicationRootPath.startsWith("/") ? nonApplicationRootPath : "/" + nonApplicationRootPath;
+        return (root.endsWith("/") ? root : root + "/") + openApiPath;
+    }
+}
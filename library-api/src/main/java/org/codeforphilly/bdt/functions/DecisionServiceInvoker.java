@@ -15,6 +15,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service that allows dynamic invocation of decision services from FEEL expressions.
@@ -26,17 +27,85 @@ import java.util.Map;
  *   situation,                     // tSituation context
  *   {"benefit": "homestead"}       // parameters map
  * )
+ *
+ * Each (model, decision service) pair is resolved once into a handle holding its DecisionModel. Within an
+ * evaluation scope (see {@link #openScope()}), identical nested invocations - the same service with an
+ * equal situation and parameters - are evaluated once and their result reused.
  */
 @Unremovable
 @ApplicationScoped
 public class DecisionServiceInvoker {
 
+    // Resolved once per (re)load; dev mode hot reload loads a fresh class
+    private static volatile DecisionServiceInvoker current;
+
+    private static final ThreadLocal<Map<Invocation, Object>> memo = new ThreadLocal<>();
+
     @Inject
     Application application;
 
     @Inject
     ModelRegistry modelRegistry;
 
+    private record HandleKey(String modelName, String serviceName) {}
+
+    private record Invocation(HandleKey handle, Map<String, Object> situation, Map<String, Object> parameters) {}
+
+    /**
+     * A decision service resolved to its DecisionModel, ready to build contexts and evaluate.
+     */
+    private record Handle(String modelName, String serviceName, DecisionModel model) {
+
+        DMNContext context(Map<String, Object> situation, Map<String, Object> parameters) {
+            Map<String, Object> input = new HashMap<>();
+            input.put("situation", situation);
+            if (parameters != null) {
+                input.put("parameters", parameters);
+            }
+            try {
+                return DMNJSONUtils.ctx(model, input, serviceName);
+            } catch (Exception e) {
+                throw new RuntimeException(
+                    String.format("Failed to create DMN context for service '%s' in model '%s'. Error: %s",
+                        serviceName, modelName, e.getMessage()), e
+                );
+            }
+        }
+    }
+
+    private final Map<HandleKey, Handle> handles = new ConcurrentHashMap<>();
+
+    /**
+     * Scope of one top-level evaluation on the current thread. Nested invocations inside it share a
+     * memo; closing the outermost scope discards it.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final boolean outermost;
+
+        private Scope(boolean outermost) {
+            this.outermost = outermost;
+        }
+
+        @Override
+        public void close() {
+            if (outermost) {
+                memo.remove();
+            }
+        }
+    }
+
+    /**
+     * Opens an evaluation scope on the current thread. Scopes nest: only the outermost one starts and
+     * discards the memo.
+     */
+    public static Scope openScope() {
+        if (memo.get() != null) {
+            return new Scope(false);
+        }
+        memo.set(new HashMap<>());
+        return new Scope(true);
+    }
+
     /**
      * Dynamically invokes a decision service.
      * This static method is provided for backward compatibility and FEEL expression usage.
@@ -51,16 +120,19 @@ public class DecisionServiceInvoker {
     public static Object invoke(String modelName, String serviceName,
                                 Map<String, Object> situation, Map<String, Object> parameters) {
         // Delegate to the instance method via CDI
-        DecisionServiceInvoker invoker;
-        try {
-            invoker = Arc.container().instance(DecisionServiceInvoker.class).get();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to obtain DecisionServiceInvoker from CDI container. " +
-                "Ensure the application context is initialized.", e);
-        }
-
+        DecisionServiceInvoker invoker = current;
         if (invoker == null) {
-            throw new RuntimeException("DecisionServiceInvoker bean not found in CDI container.");
+            try {
+                invoker = Arc.container().instance(DecisionServiceInvoker.class).get();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to obtain DecisionServiceInvoker from CDI container. " +
+                    "Ensure the application context is initialized.", e);
+            }
+
+            if (invoker == null) {
+                throw new RuntimeException("DecisionServiceInvoker bean not found in CDI container.");
+            }
+            current = invoker;
         }
 
         return invoker.invokeInternal(modelName, serviceName, situation, parameters);
@@ -72,6 +144,28 @@ public class DecisionServiceInvoker {
      */
     public Object invokeInternal(String modelName, String serviceName,
                                   Map<String, Object> situation, Map<String, Object> parameters) {
+        HandleKey key = new HandleKey(modelName, serviceName);
+        Handle handle = handles.computeIfAbsent(key, this::resolve);
+
+        Map<Invocation, Object> scopeMemo = memo.get();
+        if (scopeMemo == null) {
+            return evaluate(handle, situation, parameters);
+        }
+        Invocation invocation = new Invocation(key, situation, parameters);
+        Object cached = scopeMemo.get(invocation);
+        if (cached != null) {
+            return cached;
+        }
+        Object result = evaluate(handle, situation, parameters);
+        scopeMemo.put(invocation, result);
+        return result;
+    }
+
+    /**
+     * Resolves a (model, service) pair to its DecisionModel. Failures are not cached, so a missing
+     * model or service is reported again on the next call.
+     */
+    private Handle resolve(HandleKey key) {
         if (application == null) {
             throw new RuntimeException("Application is null - CDI injection failed");
         }
@@ -80,6 +174,9 @@ public class DecisionServiceInvoker {
             throw new RuntimeException("ModelRegistry is null - CDI injection failed");
         }
 
+        String modelName = key.modelName();
+        String serviceName = key.serviceName();
+
         // Use ModelRegistry for auto-discovery
         ModelInfo modelInfo = modelRegistry.getModelInfo(modelName);
 
@@ -113,26 +210,17 @@ public class DecisionServiceInvoker {
             );
         }
 
-        // Build the input context with situation and parameters
-        Map<String, Object> input = new HashMap<>();
-        input.put("situation", situation);
-        if (parameters != null) {
-            input.put("parameters", parameters);
-        }
+        return new Handle(modelName, serviceName, model);
+    }
 
-        DMNContext context;
-        try {
-            context = DMNJSONUtils.ctx(model, input, serviceName);
-        } catch (Exception e) {
-            throw new RuntimeException(
-                String.format("Failed to create DMN context for service '%s' in model '%s'. Error: %s",
-                    serviceName, modelName, e.getMessage()), e
-            );
-        }
+    private Object evaluate(Handle handle, Map<String, Object> situation, Map<String, Object> parameters) {
+        String modelName = handle.modelName();
+        String serviceName = handle.serviceName();
+        DMNContext context = handle.context(situation, parameters);
 
         DMNResult result;
         try {
-            result = model.evaluateDecisionService(context, serviceName);
+            result = handle.model().evaluateDecisionService(context, serviceName);
         } catch (Exception e) {
             throw new RuntimeException(
                 String.format("Failed to evaluate decision service '%s' in model '%s': %s",
@@ -0,0 +1,97 @@
+package org.codeforphilly.bdt.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.arc.Arc;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.kogito.Application;
+import org.kie.kogito.decision.DecisionModel;
+import org.kie.kogito.decision.DecisionModels;
+import org.kie.kogito.dmn.rest.DMNJSONUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding a request body to a DMN context with the service's DMNContextBinder versus the generic path
+ * (a Jackson map coerced by DMNJSONUtils), on its own and followed by the evaluation.
+ *
+ * In this package for the package-private binder; run through LibraryApiBenchmarkTest like the other
+ * library-api benchmarks. Only services that have a binder are listed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextBindingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {};
+
+    @Param({
+        "checks/age/person-min-age",
+        "checks/residence/lives-in-philadelphia-pa",
+        "benefits/pa/phl/homestead-exemption"
+    })
+    public String path;
+
+    private ObjectMapper objectMapper;
+    private DecisionModel decision;
+    private DMNContextBinder binder;
+    private String serviceName;
+    private byte[] requestBody;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Arc.container().instance(ObjectMapper.class).get();
+        ModelRegistry modelRegistry = Arc.container().instance(ModelRegistry.class).get();
+        DMNSchemaResolver schemaResolver = Arc.container().instance(DMNSchemaResolver.class).get();
+        DMNContextBinders contextBinders = Arc.container().instance(DMNContextBinders.class).get();
+
+        ModelInfo modelInfo = modelRegistry.getModelInfoByPath(path);
+        if (modelInfo == null) {
+            throw new IllegalStateException("No DMN model at path " + path);
+        }
+        binder = contextBinders.get(path);
+        if (binder == null) {
+            throw new IllegalStateException("No context binder for " + path);
+        }
+        serviceName = modelInfo.getModelName() + "Service";
+        decision = Arc.container().instance(Application.class).get().get(DecisionModels.class)
+            .getDecisionModel(modelInfo.getNamespace(), modelInfo.getModelName());
+        requestBody = objectMapper.writeValueAsBytes(
+            schemaResolver.generateExample(schemaResolver.findInputSchemaRef(modelInfo.getModelName(), serviceName)));
+    }
+
+    @Benchmark
+    public DMNContext bindGeneric() throws IOException {
+        Map<String, Object> variables = objectMapper.readValue(requestBody, VARIABLES_TYPE);
+        return DMNJSONUtils.ctx(decision, variables, serviceName);
+    }
+
+    @Benchmark
+    public DMNContext bindWithBinder() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(requestBody)) {
+            return DynamicDMNResource.boundContext(decision, binder.read(parser));
+        }
+    }
+
+    @Benchmark
+    public DMNResult evaluateGeneric() throws IOException {
+        return decision.evaluateDecisionService(bindGeneric(), serviceName);
+    }
+
+    @Benchmark
+    public DMNResult evaluateWithBinder() throws IOException {
+        return decision.evaluateDecisionService(bindWithBinder(), serviceName);
+    }
+}
@@ -0,0 +1,83 @@
+package org.codeforphilly.bdt.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class DMNContextBinderTest {
+
+    private static final String PATH = "checks/age/person-min-age";
+
+    @Inject
+    DMNContextBinders contextBinders;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestIsReadAsFEELValues() throws Exception {
+        DMNContextBinder binder = contextBinders.get(PATH);
+        assertNotNull(binder, "person-min-age should have a context binder");
+
+        String body = "{\"situation\": {\"primaryPersonId\": \"p1\", \"people\": [{\"id\": \"p1\", \"dateOfBirth\": \"1960-05-15\"}]},"
+                + " \"parameters\": {\"personId\": \"p1\", \"minAge\": 65}, \"unused\": [1, 2]}";
+        Map<String, Object> variables = binder.read(objectMapper.getFactory().createParser(body));
+
+        assertEquals(List.of("situation", "parameters"), List.copyOf(variables.keySet()));
+        Map<String, Object> situation = (Map<String, Object>) variables.get("situation");
+        Map<String, Object> person = ((List<Map<String, Object>>) situation.get("people")).get(0);
+        assertEquals(LocalDate.of(1960, 5, 15), person.get("dateOfBirth"));
+        Map<String, Object> parameters = (Map<String, Object>) variables.get("parameters");
+        assertEquals(new BigDecimal(65), parameters.get("minAge"));
+    }
+
+    @Test
+    public void testDeclaredVariablesComeFromTheModel() {
+        Set<String> declared = contextBinders.declaredVariables(PATH);
+        assertNotNull(declared, "person-min-age variables should resolve from the model");
+        assertTrue(declared.containsAll(List.of("situation", "parameters", "checkResult")));
+    }
+
+    @Test
+    public void testResponseHoldsOnlyDeclaredVariables() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"situation\": {\"primaryPersonId\": \"p1\", \"people\": [{\"id\": \"p1\", \"dateOfBirth\": \"1950-01-01\"}]},"
+                + " \"parameters\": {\"personId\": \"p1\", \"minAge\": 65, \"asOfDate\": \"2025-01-01\"}, \"unused\": true}")
+        .when()
+            .post("/api/v1/" + PATH)
+        .then()
+            .statusCode(200)
+            .body("checkResult", notNullValue())
+            .body("situation.people[0].dateOfBirth", equalTo("1950-01-01"))
+            .body("$", not(hasKey("unused")));
+    }
+
+    @Test
+    public void testMalformedBodyIsABadRequest() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"situation\": ")
+        .when()
+            .post("/api/v1/" + PATH)
+        .then()
+            .statusCode(400);
+    }
+}
@@ -0,0 +1,54 @@
+package org.codeforphilly.bdt.api;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+@QuarkusTest
+public class MetricsEndpointTest {
+
+    @Test
+    public void testEvaluationTimerIsExposedWithPathAndResultTags() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("situation", Map.of()))
+        .when()
+            .post("/api/v1/checks/age/person-min-age")
+        .then()
+            .statusCode(200);
+
+        given()
+        .when()
+            .get("/q/metrics")
+        .then()
+            .statusCode(200)
+            .body(containsString("bdt_decision_evaluation_seconds_count{"))
+            .body(containsString("path=\"checks/age/person-min-age\""))
+            .body(containsString("result=\"UNABLE_TO_DETERMINE\""));
+    }
+
+    @Test
+    public void testUnknownPathsShareOneTagValue() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("situation", Map.of()))
+        .when()
+            .post("/api/v1/checks/does-not-exist-metrics")
+        .then()
+            .statusCode(404);
+
+        given()
+        .when()
+            .get("/q/metrics")
+        .then()
+            .statusCode(200)
+            .body(containsString("path=\"unknown\""))
+            .body(not(containsString("does-not-exist-metrics")));
+    }
+}
@@ -4,6 +4,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.Test;
 
 import javax.inject.Inject;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -32,6 +33,22 @@ public class ModelDiscoveryTest {
         });
     }
 
+    @Test
+    public void testRegistryMatchesDMNFiles() throws Exception {
+        Map<String, ModelInfo> models = modelRegistry.getAllModels();
+        List<ModelInfo> scanned = ModelIndex.scan(Paths.get("src/main/resources"));
+
+        assertEquals(scanned.size(), models.size());
+        for (ModelInfo expected : scanned) {
+            ModelInfo actual = models.get(expected.getModelName());
+            assertNotNull(actual, "Missing model " + expected.getModelName());
+            assertEquals(expected.getNamespace(), actual.getNamespace());
+            assertEquals(expected.getPath(), actual.getPath());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getDecisionServices(), actual.getDecisionServices());
+        }
+    }
+
     @Test
     public void testAllModelsFollowNamingConvention() {
         Map<String, ModelInfo> allModels = modelRegistry.getAllModels();
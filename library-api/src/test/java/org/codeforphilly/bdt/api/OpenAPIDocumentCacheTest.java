@@ -0,0 +1,65 @@
+package org.codeforphilly.bdt.api;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OpenAPIDocumentCacheTest {
+
+    private Response getOpenAPI(String format) {
+        return given()
+            .queryParam("format", format)
+        .when()
+            .get("/q/openapi")
+        .then()
+            .statusCode(200)
+        .extract()
+            .response();
+    }
+
+    @Test
+    public void testDocumentIsServedWithAStableETag() {
+        String first = getOpenAPI("JSON").asString();
+
+        Response cached = getOpenAPI("JSON");
+        String etag = cached.getHeader("ETag");
+        assertNotNull(etag, "Cached document should carry an ETag");
+        assertEquals(first, cached.asString());
+        assertTrue(cached.jsonPath().getMap("paths").containsKey("/api/v1/checks/age/person-min-age"));
+        assertEquals(etag, getOpenAPI("JSON").getHeader("ETag"));
+    }
+
+    @Test
+    public void testIfNoneMatchReturnsNotModified() {
+        getOpenAPI("YAML");
+        String etag = getOpenAPI("YAML").getHeader("ETag");
+        assertNotNull(etag);
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/q/openapi")
+        .then()
+            .statusCode(304);
+
+        given()
+            .header("If-None-Match", "\"stale\"")
+        .when()
+            .get("/q/openapi")
+        .then()
+            .statusCode(200);
+    }
+
+    @Test
+    public void testIfNoneMatchComparison() {
+        assertTrue(OpenAPIDocumentCache.matches("\"a\"", "\"a\""));
+        assertTrue(OpenAPIDocumentCache.matches("\"b\", W/\"a\"", "\"a\""));
+        assertTrue(OpenAPIDocumentCache.matches("*", "\"a\""));
+        assertFalse(OpenAPIDocumentCache.matches("\"b\"", "\"a\""));
+        assertFalse(OpenAPIDocumentCache.matches(null, "\"a\""));
+    }
+}
@@ -0,0 +1,92 @@
+package org.codeforphilly.bdt.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.arc.Arc;
+import org.codeforphilly.bdt.api.DMNSchemaResolver;
+import org.codeforphilly.bdt.api.DynamicDMNResource;
+import org.codeforphilly.bdt.api.ModelInfo;
+import org.codeforphilly.bdt.api.ModelRegistry;
+import org.codeforphilly.bdt.functions.DecisionServiceInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of the bundled check and benefit DMNs through the REST resource and the FEEL invoker.
+ *
+ * Runs inside the Quarkus test application (see LibraryApiBenchmarkTest), so the Kogito-generated
+ * decision models and CDI beans are the real ones. Inputs are the examples generated from each
+ * model's input schema, as in DynamicEndpointPatternTest; the REST resource gets them as the JSON
+ * body a client would send.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecisionEvaluationBenchmark {
+
+    @Param({
+        "checks/age/person-min-age",
+        "checks/residence/lives-in-philadelphia-pa",
+        "checks/enrollment/person-enrolled-in-benefit",
+        "benefits/pa/phl/homestead-exemption",
+        "benefits/pa/phl/senior-citizen-tax-freeze"
+    })
+    public String path;
+
+    private DynamicDMNResource resource;
+    private DecisionServiceInvoker invoker;
+    private String modelName;
+    private String serviceName;
+    private Map<String, Object> request;
+    private byte[] requestBody;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws JsonProcessingException {
+        resource = Arc.container().instance(DynamicDMNResource.class).get();
+        invoker = Arc.container().instance(DecisionServiceInvoker.class).get();
+        ModelRegistry modelRegistry = Arc.container().instance(ModelRegistry.class).get();
+        DMNSchemaResolver schemaResolver = Arc.container().instance(DMNSchemaResolver.class).get();
+
+        ModelInfo modelInfo = modelRegistry.getModelInfoByPath(path);
+        if (modelInfo == null) {
+            throw new IllegalStateException("No DMN model at path " + path);
+        }
+        modelName = modelInfo.getModelName();
+        serviceName = modelName + "Service";
+        request = schemaResolver.generateExample(schemaResolver.findInputSchemaRef(modelName, serviceName));
+        requestBody = Arc.container().instance(ObjectMapper.class).get().writeValueAsBytes(request);
+
+        Response response = evaluateDecisionService();
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("Example request for " + path + " failed with status " + response.getStatus());
+        }
+    }
+
+    @Benchmark
+    public Response evaluateDecisionService() {
+        return resource.evaluateDecisionService(path, new ByteArrayInputStream(requestBody));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object invokeInternal() {
+        return invoker.invokeInternal(
+            modelName,
+            serviceName,
+            (Map<String, Object>) request.get("situation"),
+            (Map<String, Object>) request.get("parameters")
+        );
+    }
+}
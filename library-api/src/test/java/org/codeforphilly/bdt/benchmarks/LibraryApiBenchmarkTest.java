@@ -0,0 +1,49 @@
+package org.codeforphilly.bdt.benchmarks;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.codeforphilly.bdt.api.ContextBindingBenchmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the library-api JMH benchmarks inside the Quarkus test application.
+ *
+ * Kogito generates the decision models and CDI wiring at build time, so the benchmarks run in-process
+ * (no forks) against the booted application rather than in a standalone JMH JVM. Skipped unless
+ * -Dbenchmarks=true is given:
+ *
+ *   mvn test -Dtest=LibraryApiBenchmarkTest -Dbenchmarks=true [-Dbenchmarks.result=path/to/result.json]
+ *       [-Dbenchmarks.include=BenchmarkClassName]
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+public class LibraryApiBenchmarkTest {
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        String include = System.getProperty("benchmarks.include");
+        OptionsBuilder builder = new OptionsBuilder();
+        if (include != null) {
+            builder.include(include);
+        } else {
+            builder.include(DecisionEvaluationBenchmark.class.getName())
+                .include(ContextBindingBenchmark.class.getName());
+        }
+        Options options = builder
+            .forks(0)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty("benchmarks.result", "target/jmh-result-library-api.json"))
+            .build();
+
+        new Runner(options).run();
+    }
+}
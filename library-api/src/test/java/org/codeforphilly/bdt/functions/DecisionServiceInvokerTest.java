@@ -0,0 +1,44 @@
+package org.codeforphilly.bdt.functions;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class DecisionServiceInvokerTest {
+
+    @Inject
+    DecisionServiceInvoker invoker;
+
+    @Test
+    public void testIdenticalInvocationsInAScopeAreEvaluatedOnce() {
+        try (DecisionServiceInvoker.Scope scope = DecisionServiceInvoker.openScope()) {
+            Object first = invoker.invokeInternal("PersonMinAge", "PersonMinAgeService", Map.of(), null);
+            Object second = invoker.invokeInternal("PersonMinAge", "PersonMinAgeService", Map.of(), null);
+
+            assertSame(first, second);
+        }
+    }
+
+    @Test
+    public void testInvocationsOutsideAScopeAreNotMemoized() {
+        Object first = invoker.invokeInternal("PersonMinAge", "PersonMinAgeService", Map.of(), null);
+        Object second = invoker.invokeInternal("PersonMinAge", "PersonMinAgeService", Map.of(), null);
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testUnknownServiceIsReportedOnEveryCall() {
+        for (int i = 0; i < 2; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () ->
+                invoker.invokeInternal("PersonMinAge", "MissingService", Map.of(), null));
+            assertTrue(e.getMessage().contains("PersonMinAgeService"));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.codeforphilly.bdt.functions;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class LocationServiceTest {
+
+    @Test
+    public void testLookupByZipCode() {
+        assertEquals(List.of("Philadelphia"), LocationService.lookup("countyName", Map.of("zipCode", "19104")));
+    }
+
+    @Test
+    public void testLookupByCounty() {
+        assertTrue(LocationService.lookup("stateAbbreviation", Map.of("countyName", "Philadelphia")).contains("PA"));
+    }
+
+    @Test
+    public void testLookupOfUnknownValueIsEmpty() {
+        assertTrue(LocationService.lookup("countyName", Map.of("zipCode", "00000")).isEmpty());
+    }
+}